@@ -0,0 +1,73 @@
+package com.eurigo.websocketlib.bench;
+
+import com.eurigo.websocketlib.DisConnectReason;
+import com.eurigo.websocketlib.IWebSocketListener;
+import com.eurigo.websocketlib.WsClient;
+
+import org.java_websocket.framing.Framedata;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只计数的客户端回调，所有客户端共用一个实例
+ */
+class BenchListener implements IWebSocketListener {
+
+    final AtomicLong received = new AtomicLong();
+
+    final AtomicLong connected = new AtomicLong();
+
+    /**
+     * 等待收到的消息数达到target
+     */
+    void awaitReceived(long target) {
+        while (received.get() < target) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 等待连接成功的次数达到target
+     */
+    void awaitConnected(long target) {
+        while (connected.get() < target) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void onConnected(WsClient client) {
+        connected.incrementAndGet();
+    }
+
+    @Override
+    public void onDisconnect(WsClient client, DisConnectReason reason) {
+    }
+
+    @Override
+    public void onClosing(WsClient client, DisConnectReason reason) {
+    }
+
+    @Override
+    public void onMessage(WsClient client, String message) {
+        received.incrementAndGet();
+    }
+
+    @Override
+    public void onMessage(WsClient client, ByteBuffer bytes) {
+        received.incrementAndGet();
+    }
+
+    @Override
+    public void onPing(WsClient wsClient, Framedata frameData) {
+    }
+
+    @Override
+    public void onPong(WsClient client, Framedata frameData) {
+    }
+
+    @Override
+    public void onSendMessage(WsClient client, String message) {
+    }
+}
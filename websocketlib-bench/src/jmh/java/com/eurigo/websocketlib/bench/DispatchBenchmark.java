@@ -0,0 +1,105 @@
+package com.eurigo.websocketlib.bench;
+
+import com.eurigo.websocketlib.DisConnectReason;
+import com.eurigo.websocketlib.IWebSocketListener;
+import com.eurigo.websocketlib.WsClient;
+
+import org.java_websocket.framing.Framedata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WsClient#onMessage}到{@link IWebSocketListener}的分发开销，不经过网络，
+ * 用于观察分发路径上新增的逻辑和分配
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+    @Param({"64", "1024"})
+    public int payloadSize;
+
+    private WsClient client;
+
+    private String text;
+
+    private ByteBuffer binary;
+
+    private long consumed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = new WsClient.Builder()
+                .setServerUrl("ws://127.0.0.1:1")
+                .setWsKey("dispatch")
+                .setListener(new ConsumingListener())
+                .setPingInterval(0)
+                .setReconnectCount(0)
+                .build();
+        char[] chars = new char[payloadSize];
+        Arrays.fill(chars, 'x');
+        text = new String(chars);
+        binary = ByteBuffer.allocate(payloadSize);
+    }
+
+    @Benchmark
+    public long text() {
+        client.onMessage(text);
+        return consumed;
+    }
+
+    @Benchmark
+    public long binary() {
+        client.onMessage(binary);
+        return consumed;
+    }
+
+    private final class ConsumingListener implements IWebSocketListener {
+
+        @Override
+        public void onConnected(WsClient client) {
+        }
+
+        @Override
+        public void onDisconnect(WsClient client, DisConnectReason reason) {
+        }
+
+        @Override
+        public void onClosing(WsClient client, DisConnectReason reason) {
+        }
+
+        @Override
+        public void onMessage(WsClient client, String message) {
+            consumed += message.length();
+        }
+
+        @Override
+        public void onMessage(WsClient client, ByteBuffer bytes) {
+            consumed += bytes.remaining();
+        }
+
+        @Override
+        public void onPing(WsClient wsClient, Framedata frameData) {
+        }
+
+        @Override
+        public void onPong(WsClient client, Framedata frameData) {
+        }
+
+        @Override
+        public void onSendMessage(WsClient client, String message) {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.eurigo.websocketlib.bench;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回环地址上的进程内服务端，端口由系统分配
+ */
+final class LoopbackServer extends WebSocketServer {
+
+    private final boolean echo;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private volatile WebSocket lastConnection;
+
+    private LoopbackServer(boolean echo) {
+        super(new InetSocketAddress("127.0.0.1", 0));
+        this.echo = echo;
+        setReuseAddr(true);
+        setTcpNoDelay(true);
+    }
+
+    /**
+     * @param echo 是否把收到的消息原样发回
+     */
+    static LoopbackServer start(boolean echo) throws InterruptedException {
+        LoopbackServer server = new LoopbackServer(echo);
+        server.start();
+        if (!server.started.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Loopback server didn't start");
+        }
+        return server;
+    }
+
+    String url() {
+        return "ws://127.0.0.1:" + getPort();
+    }
+
+    WebSocket getLastConnection() {
+        return lastConnection;
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        lastConnection = conn;
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        if (echo) {
+            conn.send(message);
+        }
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+        if (echo) {
+            conn.send(message);
+        }
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onStart() {
+        started.countDown();
+    }
+}
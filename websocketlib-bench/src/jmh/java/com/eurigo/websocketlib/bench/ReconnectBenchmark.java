@@ -0,0 +1,77 @@
+package com.eurigo.websocketlib.bench;
+
+import com.eurigo.websocketlib.ReconnectPolicy;
+import com.eurigo.websocketlib.WsClient;
+import com.eurigo.websocketlib.WsManager;
+
+import org.java_websocket.WebSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端断开连接到客户端自动重连成功的耗时，重连间隔为0，
+ * 覆盖onClose、重连状态机、时间轮调度、复用同一WsClient的reconnect和握手
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReconnectBenchmark {
+
+    private static final String KEY = "bench-reconnect";
+
+    private LoopbackServer server;
+
+    private final BenchListener listener = new BenchListener();
+
+    private long connected;
+
+    private WebSocket closed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = LoopbackServer.start(false);
+        // 回环网络总是可用，先注册网络回调再添加客户端，避免注册时触发额外的重连
+        WsManager.getInstance().registerNetworkChangedCallback();
+        WsClient client = new WsClient.Builder()
+                .setServerUrl(server.url())
+                .setWsKey(KEY)
+                .setListener(listener)
+                .setPingInterval(0)
+                .setReconnectCount(Integer.MAX_VALUE)
+                .setReconnectPolicy(ReconnectPolicy.fixed(0))
+                .build();
+        WsManager.getInstance().init(client);
+        if (!client.connectBlocking(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Failed to connect " + KEY);
+        }
+        connected = listener.connected.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        WsManager.getInstance().destroy();
+        server.stop(1000);
+    }
+
+    @Benchmark
+    public void reconnect() {
+        // 客户端的onOpen可能早于服务端，等待服务端看到新连接
+        WebSocket conn;
+        while ((conn = server.getLastConnection()) == null || conn == closed || !conn.isOpen()) {
+            Thread.onSpinWait();
+        }
+        closed = conn;
+        conn.close();
+        connected++;
+        listener.awaitConnected(connected);
+    }
+}
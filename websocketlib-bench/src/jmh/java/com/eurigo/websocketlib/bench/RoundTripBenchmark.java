@@ -0,0 +1,133 @@
+package com.eurigo.websocketlib.bench;
+
+import com.eurigo.websocketlib.WsClient;
+import com.eurigo.websocketlib.WsManager;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过{@link WsManager#send}发送，由回环服务端回显，覆盖编码、写线程、读线程解码和onMessage分发的完整链路
+ * <p>
+ * throughput：每个客户端发送一个窗口的消息后等待全部回显，msgs为每秒往返的消息数<br>
+ * roundTrip：每个客户端发送一条消息，样本为全部回显到达的时间，clients为1时即单条消息的往返延迟
+ */
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    private static final int WINDOW = 64;
+
+    @Param({"1", "10", "100", "1000"})
+    public int clients;
+
+    @Param({"TEXT", "BINARY"})
+    public String payloadType;
+
+    @Param({"64", "1024"})
+    public int payloadSize;
+
+    private LoopbackServer server;
+
+    private final BenchListener listener = new BenchListener();
+
+    private String[] keys;
+
+    private String text;
+
+    private ByteBuffer binary;
+
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = LoopbackServer.start(true);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "bench-" + i;
+            WsClient client = new WsClient.Builder()
+                    .setServerUrl(server.url())
+                    .setWsKey(keys[i])
+                    .setListener(listener)
+                    .setPingInterval(0)
+                    .setReconnectCount(0)
+                    .build();
+            WsManager.getInstance().init(client);
+            if (!client.connectBlocking(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Failed to connect " + keys[i]);
+            }
+        }
+        char[] chars = new char[payloadSize];
+        Arrays.fill(chars, 'x');
+        text = new String(chars);
+        binary = ByteBuffer.wrap(new byte[payloadSize]).asReadOnlyBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        WsManager.getInstance().destroy();
+        server.stop(1000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput(MessageCounter counter) {
+        for (int n = 0; n < WINDOW; n++) {
+            sendToAll();
+        }
+        expected += (long) WINDOW * clients;
+        listener.awaitReceived(expected);
+        counter.msgs += (long) WINDOW * clients;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void roundTrip() {
+        sendToAll();
+        expected += clients;
+        listener.awaitReceived(expected);
+    }
+
+    private void sendToAll() {
+        WsManager manager = WsManager.getInstance();
+        if ("TEXT".equals(payloadType)) {
+            for (String key : keys) {
+                manager.send(key, text);
+            }
+        } else {
+            for (String key : keys) {
+                // 调用即转移所有权，每次发送一个新的视图
+                manager.send(key, binary.duplicate());
+            }
+        }
+    }
+
+    /**
+     * 以消息为单位统计吞吐
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class MessageCounter {
+
+        public long msgs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            msgs = 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.eurigo.websocketlib.bench;
+
+import com.eurigo.websocketlib.util.HashedWheelTimer;
+import com.eurigo.websocketlib.util.ThreadUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ThreadUtils}的调度开销：IO线程池的提交到执行延迟，以及共享时间轮的注册、取消和到期延迟
+ */
+@State(Scope.Benchmark)
+public class ThreadUtilsBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    private final AtomicLong done = new AtomicLong();
+
+    private long expected;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void executeByIo() {
+        ThreadUtils.executeByIo(new ThreadUtils.SimpleTask<Void>() {
+            @Override
+            public Void doInBackground() {
+                done.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public void onSuccess(Void result) {
+            }
+        });
+        awaitDone();
+    }
+
+    /**
+     * 重连、发送队列和批量发送都会频繁注册后取消超时，这里只测注册和取消本身
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean timerNewTimeoutAndCancel() {
+        HashedWheelTimer.Timeout timeout = ThreadUtils.getTimer()
+                .newTimeout(ThreadUtils.getIoPool(), NOOP, 1, TimeUnit.MINUTES);
+        return timeout.cancel();
+    }
+
+    /**
+     * 到期延迟受时间轮精度（10毫秒）影响
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void timerExpire() {
+        Executor direct = Runnable::run;
+        ThreadUtils.getTimer().newTimeout(direct, done::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+        awaitDone();
+    }
+
+    private void awaitDone() {
+        expected++;
+        while (done.get() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package android;
+
+/**
+ * JVM替代实现
+ */
+public final class Manifest {
+
+    public static final class permission {
+
+        public static final String ACCESS_NETWORK_STATE = "android.permission.ACCESS_NETWORK_STATE";
+    }
+}
@@ -0,0 +1,19 @@
+package android.app;
+
+/**
+ * JVM替代实现，供AppUtils通过反射获取Application
+ */
+public final class ActivityThread {
+
+    private static final ActivityThread sCurrentActivityThread = new ActivityThread();
+
+    private final Application application = new Application();
+
+    public static ActivityThread currentActivityThread() {
+        return sCurrentActivityThread;
+    }
+
+    public Application getApplication() {
+        return application;
+    }
+}
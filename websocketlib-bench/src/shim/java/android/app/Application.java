@@ -0,0 +1,9 @@
+package android.app;
+
+import android.content.Context;
+
+/**
+ * JVM替代实现
+ */
+public class Application extends Context {
+}
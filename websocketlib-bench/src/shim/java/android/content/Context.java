@@ -0,0 +1,32 @@
+package android.content;
+
+import android.content.pm.PackageManager;
+import android.net.ConnectivityManager;
+
+/**
+ * JVM替代实现
+ */
+public class Context {
+
+    public static final String CONNECTIVITY_SERVICE = "connectivity";
+
+    private final ConnectivityManager connectivityManager = new ConnectivityManager();
+
+    private final PackageManager packageManager = new PackageManager();
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public Object getSystemService(String name) {
+        return CONNECTIVITY_SERVICE.equals(name) ? connectivityManager : null;
+    }
+
+    public PackageManager getPackageManager() {
+        return packageManager;
+    }
+
+    public String getPackageName() {
+        return "com.eurigo.websocketlib.bench";
+    }
+}
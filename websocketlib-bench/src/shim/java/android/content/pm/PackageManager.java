@@ -0,0 +1,13 @@
+package android.content.pm;
+
+/**
+ * JVM替代实现，所有权限均已授予
+ */
+public class PackageManager {
+
+    public static final int PERMISSION_GRANTED = 0;
+
+    public int checkPermission(String permName, String packageName) {
+        return PERMISSION_GRANTED;
+    }
+}
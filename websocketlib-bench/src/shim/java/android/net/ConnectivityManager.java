@@ -0,0 +1,27 @@
+package android.net;
+
+/**
+ * JVM替代实现，注册时立即回调一次网络可用
+ */
+public class ConnectivityManager {
+
+    public static class NetworkCallback {
+
+        public void onAvailable(Network network) {
+        }
+
+        public void onLost(Network network) {
+        }
+    }
+
+    public NetworkCapabilities getNetworkCapabilities(Network network) {
+        return new NetworkCapabilities();
+    }
+
+    public void registerNetworkCallback(NetworkRequest request, NetworkCallback networkCallback) {
+        networkCallback.onAvailable(new Network());
+    }
+
+    public void unregisterNetworkCallback(NetworkCallback networkCallback) {
+    }
+}
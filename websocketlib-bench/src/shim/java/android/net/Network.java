@@ -0,0 +1,7 @@
+package android.net;
+
+/**
+ * JVM替代实现
+ */
+public class Network {
+}
@@ -0,0 +1,14 @@
+package android.net;
+
+/**
+ * JVM替代实现
+ */
+public class NetworkRequest {
+
+    public static class Builder {
+
+        public NetworkRequest build() {
+            return new NetworkRequest();
+        }
+    }
+}
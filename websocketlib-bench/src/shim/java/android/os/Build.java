@@ -0,0 +1,19 @@
+package android.os;
+
+/**
+ * JVM替代实现
+ */
+public final class Build {
+
+    public static final class VERSION {
+
+        public static final int SDK_INT = 21;
+    }
+
+    public static final class VERSION_CODES {
+
+        public static final int M = 23;
+
+        public static final int N = 24;
+    }
+}
@@ -0,0 +1,33 @@
+package android.os;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM替代实现，消息在模拟的主线程中执行
+ */
+public class Handler {
+
+    private static final ScheduledExecutorService DELAYER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "main-delayer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Looper looper;
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public final boolean post(Runnable r) {
+        looper.executor.execute(r);
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        DELAYER.schedule(() -> post(r), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        return true;
+    }
+}
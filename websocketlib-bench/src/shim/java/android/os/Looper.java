@@ -0,0 +1,37 @@
+package android.os;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JVM替代实现，主线程由一个守护线程模拟
+ */
+public final class Looper {
+
+    private static final Looper MAIN = new Looper();
+
+    final ExecutorService executor;
+
+    private volatile Thread thread;
+
+    private Looper() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "main");
+            t.setDaemon(true);
+            thread = t;
+            return t;
+        });
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+
+    public static Looper myLooper() {
+        return Thread.currentThread() == MAIN.thread ? MAIN : null;
+    }
+
+    public Thread getThread() {
+        return thread;
+    }
+}
@@ -0,0 +1,51 @@
+package com.eurigo.websocketlib;
+
+import java.util.List;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 17:10
+ * desc   : 批量发送时把多条文本消息打包成一条消息，需与服务端的拆包方式一致
+ */
+public interface BatchCodec {
+
+    /**
+     * 打包
+     *
+     * @param messages 同一批次的消息，按发送顺序排列，不为空
+     * @return 打包后的消息
+     */
+    String encode(List<String> messages);
+
+    /**
+     * 打包为JSON数组，要求每条消息本身是合法的JSON
+     */
+    static BatchCodec jsonArray() {
+        return messages -> {
+            int length = 2 + messages.size();
+            for (String message : messages) {
+                length += message.length();
+            }
+            StringBuilder builder = new StringBuilder(length).append('[');
+            for (int i = 0; i < messages.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(messages.get(i));
+            }
+            return builder.append(']').toString();
+        };
+    }
+
+    /**
+     * 使用分隔符拼接，要求消息本身不包含分隔符
+     *
+     * @param delimiter 分隔符，例如"\n"
+     */
+    static BatchCodec delimited(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("delimiter must not be empty");
+        }
+        return messages -> String.join(delimiter, messages);
+    }
+}
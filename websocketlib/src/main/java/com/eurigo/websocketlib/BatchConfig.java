@@ -0,0 +1,131 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 17:05
+ * desc   : 文本消息批量发送配置
+ * 窗口内通过{@link WsClient#send(String)}发送的消息会被合并，达到时间、字节或条数任一上限时写出，
+ * 用少量延迟换取更少的系统调用和数据包
+ */
+public final class BatchConfig {
+
+    /**
+     * 批量写出方式
+     */
+    public enum Mode {
+
+        /**
+         * 每条消息仍是独立的帧，同一批次的帧合并为一次socket写入，服务端无需改动
+         */
+        COALESCE_FRAMES,
+
+        /**
+         * 同一批次的消息由{@link BatchCodec}打包成一条消息，服务端需要拆包
+         */
+        ENVELOPE
+    }
+
+    private final Mode mode;
+
+    private final long windowMillis;
+
+    private final int maxBatchBytes;
+
+    private final int maxBatchMessages;
+
+    private final BatchCodec codec;
+
+    private BatchConfig(Builder builder) {
+        if (builder.windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be greater than 0");
+        }
+        if (builder.maxBatchBytes <= 0 || builder.maxBatchMessages <= 0) {
+            throw new IllegalArgumentException("maxBatchBytes and maxBatchMessages must be greater than 0");
+        }
+        if (builder.mode == Mode.ENVELOPE && builder.codec == null) {
+            throw new IllegalArgumentException("codec must not be null in ENVELOPE mode");
+        }
+        this.mode = builder.mode;
+        this.windowMillis = builder.windowMillis;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.maxBatchMessages = builder.maxBatchMessages;
+        this.codec = builder.codec;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public int getMaxBatchMessages() {
+        return maxBatchMessages;
+    }
+
+    public BatchCodec getCodec() {
+        return codec;
+    }
+
+    public static final class Builder {
+
+        private Mode mode = Mode.COALESCE_FRAMES;
+
+        private long windowMillis = 20;
+
+        private int maxBatchBytes = 16 * 1024;
+
+        private int maxBatchMessages = 64;
+
+        private BatchCodec codec;
+
+        /**
+         * 写出方式，默认COALESCE_FRAMES
+         */
+        public Builder setMode(Mode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * 批次的最长等待时间，单位毫秒，默认20，精度受共享时间轮影响约10毫秒
+         */
+        public Builder setWindowMillis(long windowMillis) {
+            this.windowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * 批次的最大字节数，按字符数估算，达到后立即写出，默认16KB
+         */
+        public Builder setMaxBatchBytes(int maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * 批次的最大消息数，达到后立即写出，默认64
+         */
+        public Builder setMaxBatchMessages(int maxBatchMessages) {
+            this.maxBatchMessages = maxBatchMessages;
+            return this;
+        }
+
+        /**
+         * ENVELOPE模式的打包方式，例如{@link BatchCodec#jsonArray()}
+         */
+        public Builder setCodec(BatchCodec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        public BatchConfig build() {
+            return new BatchConfig(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.eurigo.websocketlib;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 二进制格式的消息编解码，{@link MessageSender}发送二进制消息
+ *
+ * @param <T> 消息类型
+ */
+public interface BinaryMessageCodec<T> extends MessageCodec<T> {
+
+    /**
+     * 编码为二进制消息，可能在任意发送线程中调用
+     *
+     * @param out 写入池化缓冲区的输出流，无需关闭
+     */
+    void encode(T message, OutputStream out) throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 20:22
+ * desc   : 一次广播的结果
+ */
+public final class BroadcastResult {
+
+    static final BroadcastResult EMPTY = new BroadcastResult(0, 0, 0, 0);
+
+    private final int sent;
+
+    private final int filtered;
+
+    private final int skipped;
+
+    private final int failed;
+
+    BroadcastResult(int sent, int filtered, int skipped, int failed) {
+        this.sent = sent;
+        this.filtered = filtered;
+        this.skipped = skipped;
+        this.failed = failed;
+    }
+
+    /**
+     * @return 已放入发送队列的连接数
+     */
+    public int getSent() {
+        return sent;
+    }
+
+    /**
+     * @return 被过滤器排除的连接数
+     */
+    public int getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * @return 积压超过上限而跳过的连接数
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return 未打开或发送失败的连接数
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastResult{sent=" + sent
+                + ", filtered=" + filtered
+                + ", skipped=" + skipped
+                + ", failed=" + failed + '}';
+    }
+}
@@ -0,0 +1,180 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.DefaultExtension;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.server.WebSocketServer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 20:25
+ * desc   : WebSocketServer的广播，消息只编码一次，
+ * 编码后的帧以共享内容的duplicate()放入每个连接的outQueue，由selector线程写出。
+ * 服务端的帧不加掩码，未协商扩展的连接可以共用同一份字节；协商了扩展（如permessage-deflate）的连接
+ * 帧内容与连接状态有关，仍逐个编码发送
+ */
+final class Broadcaster {
+
+    /**
+     * 连接数超过该值时分块，由CPU线程池并行放入各连接的outQueue
+     */
+    private static final int CHUNK_SIZE = 128;
+
+    /**
+     * 只用于编码服务端的帧，不加掩码，不使用扩展
+     */
+    private static final Draft_6455 ENCODER = new Draft_6455();
+
+    private final WebSocketServer server;
+
+    private final int backlogLimit;
+
+    private final ConnectionFilter filter;
+
+    private final AtomicInteger sent = new AtomicInteger();
+
+    private final AtomicInteger filtered = new AtomicInteger();
+
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private Broadcaster(WebSocketServer server, int backlogLimit, ConnectionFilter filter) {
+        this.server = server;
+        this.backlogLimit = backlogLimit;
+        this.filter = filter;
+    }
+
+    /**
+     * @param payload      String或ByteBuffer（从position到limit，不会被修改）
+     * @param filter       为空时发送给所有连接
+     * @param backlogLimit outQueue中的帧数达到该值的连接本次跳过
+     */
+    static BroadcastResult broadcast(WebSocketServer server, Object payload, ConnectionFilter filter
+            , int backlogLimit) {
+        return broadcast(server, server.getConnections(), payload, filter, backlogLimit);
+    }
+
+    /**
+     * @param connections 目标连接，例如{@link TopicRouter#match(String)}的结果
+     */
+    static BroadcastResult broadcast(WebSocketServer server, Collection<WebSocket> connections, Object payload
+            , ConnectionFilter filter, int backlogLimit) {
+        if (connections.isEmpty()) {
+            return BroadcastResult.EMPTY;
+        }
+        ByteBuffer frame = encode(payload);
+        List<WebSocket> targets = new ArrayList<>(connections);
+        Broadcaster broadcaster = new Broadcaster(server, backlogLimit, filter);
+        int chunks = (targets.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks <= 1) {
+            broadcaster.send(targets, 0, targets.size(), payload, frame);
+        } else {
+            broadcaster.sendParallel(targets, chunks, payload, frame);
+        }
+        return new BroadcastResult(broadcaster.sent.get(), broadcaster.filtered.get()
+                , broadcaster.skipped.get(), broadcaster.failed.get());
+    }
+
+    /**
+     * 调用线程与CPU线程池一起领取分块，调用线程只等待已被领取的分块，
+     * 线程池繁忙（包括在其中调用广播）时由调用线程完成剩余的分块
+     */
+    private void sendParallel(List<WebSocket> targets, int chunks, Object payload, ByteBuffer frame) {
+        AtomicInteger nextChunk = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(chunks);
+        Runnable worker = () -> {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                try {
+                    int from = chunk * CHUNK_SIZE;
+                    send(targets, from, Math.min(targets.size(), from + CHUNK_SIZE), payload, frame);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        int helpers = Math.min(chunks - 1, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < helpers; i++) {
+            try {
+                ThreadUtils.getCpuPool().execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(List<WebSocket> targets, int from, int to, Object payload, ByteBuffer frame) {
+        for (int i = from; i < to; i++) {
+            WebSocket conn = targets.get(i);
+            try {
+                if (filter != null && !filter.accept(conn)) {
+                    filtered.incrementAndGet();
+                    continue;
+                }
+                if (!conn.isOpen()) {
+                    failed.incrementAndGet();
+                    continue;
+                }
+                WebSocketImpl impl = (WebSocketImpl) conn;
+                if (impl.outQueue.size() >= backlogLimit) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                if (isPlain(impl.getDraft())) {
+                    impl.outQueue.add(frame.duplicate());
+                    server.onWriteDemand(impl);
+                } else if (payload instanceof String) {
+                    conn.send((String) payload);
+                } else {
+                    conn.send(((ByteBuffer) payload).duplicate());
+                }
+                sent.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                WsLogUtil.e("广播发送失败, {}, {}", conn.getRemoteSocketAddress(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return 帧的编码是否与连接状态无关
+     */
+    private static boolean isPlain(Draft draft) {
+        return draft instanceof Draft_6455
+                && ((Draft_6455) draft).getExtension().getClass() == DefaultExtension.class;
+    }
+
+    /**
+     * @return 从0开始的堆内缓冲区，Java-WebSocket的写线程按此约定写出
+     */
+    private static ByteBuffer encode(Object payload) {
+        List<Framedata> frames;
+        if (payload instanceof String) {
+            frames = ENCODER.createFrames((String) payload, false);
+        } else {
+            frames = ENCODER.createFrames(((ByteBuffer) payload).duplicate(), false);
+        }
+        return ENCODER.createBinaryFrame(frames.get(0));
+    }
+}
@@ -0,0 +1,20 @@
+package com.eurigo.websocketlib;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 15:30
+ * desc   : 发送缓冲区回收
+ * 通过{@link WsClient#send(ByteBuffer)}发送的缓冲区，所有权在调用时转移给WsClient，
+ * 帧编码完成（或发送失败）后交还给回收器，调用方不能再读写该缓冲区
+ */
+public interface BufferRecycler {
+
+    /**
+     * 回收缓冲区，在发送线程中调用，请勿执行耗时操作
+     *
+     * @param buffer 已发送的缓冲区
+     */
+    void recycle(ByteBuffer buffer);
+}
@@ -0,0 +1,82 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 18:30
+ * desc   : 回调执行方式，为每个连接提供一个按顺序执行回调的{@link Executor}
+ * <p>
+ * 默认{@link #direct()}在Java-WebSocket的读线程中执行，回调耗时过长会阻塞帧的读取和心跳，
+ * 可能触发连接丢失检测而断开
+ */
+public interface CallbackExecutor {
+
+    /**
+     * 为一个连接创建回调执行器，同一连接的回调必须按提交顺序执行
+     */
+    Executor forConnection();
+
+    /**
+     * @return 是否在Java-WebSocket的读线程中直接执行，为true时不需要为连接创建和保存执行器
+     */
+    default boolean isDirect() {
+        return false;
+    }
+
+    /**
+     * 在Java-WebSocket的读线程中直接执行，与之前的行为一致
+     */
+    static CallbackExecutor direct() {
+        return new CallbackExecutor() {
+
+            @Override
+            public Executor forConnection() {
+                return SerialExecutor.DIRECT;
+            }
+
+            @Override
+            public boolean isDirect() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * 每个连接一个专用线程，空闲30秒后线程退出，下次回调时重新创建
+     */
+    static CallbackExecutor dedicated() {
+        return () -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS
+                    , new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "ws-callback");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        };
+    }
+
+    /**
+     * 所有连接共用{@link ThreadUtils#getCpuPool()}，每个连接的回调按顺序执行
+     */
+    static CallbackExecutor shared() {
+        return shared(ThreadUtils.getCpuPool());
+    }
+
+    /**
+     * 所有连接共用指定的线程池，每个连接的回调按顺序执行，同一时间最多占用其中一个线程
+     */
+    static CallbackExecutor shared(Executor pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        return () -> new SerialExecutor(pool);
+    }
+}
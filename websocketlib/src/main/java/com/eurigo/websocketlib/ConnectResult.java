@@ -0,0 +1,80 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:50
+ * desc   : {@link WsManager#startAll(int, long, IStartListener)}中单个WebSocket的连接结果
+ */
+public final class ConnectResult {
+
+    public enum Status {
+        /**
+         * 在截止时间内连接成功
+         */
+        CONNECTED,
+        /**
+         * 调用时已连接，未重新连接
+         */
+        ALREADY_OPEN,
+        /**
+         * 连接失败或未能发起连接
+         */
+        FAILED,
+        /**
+         * 截止时间内未完成握手，连接仍在进行，结果照常通过onConnected或onDisconnect回调
+         */
+        TIMEOUT
+    }
+
+    private final String wsKey;
+
+    private final Status status;
+
+    private final DisConnectReason reason;
+
+    private final long elapsedMillis;
+
+    ConnectResult(String wsKey, Status status, DisConnectReason reason, long elapsedMillis) {
+        this.wsKey = wsKey;
+        this.status = status;
+        this.reason = reason;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getWsKey() {
+        return wsKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 连接成功或已连接
+     */
+    public boolean isConnected() {
+        return status == Status.CONNECTED || status == Status.ALREADY_OPEN;
+    }
+
+    /**
+     * @return 连接失败的原因，其他状态或未能发起连接时为空
+     */
+    public DisConnectReason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return 从发起连接到得出结果的耗时，单位毫秒，不含等待并发名额的时间
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectResult{wsKey='" + wsKey + '\''
+                + ", status=" + status
+                + ", reason=" + reason
+                + ", elapsedMillis=" + elapsedMillis + '}';
+    }
+}
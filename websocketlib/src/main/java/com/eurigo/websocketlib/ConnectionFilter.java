@@ -0,0 +1,16 @@
+package com.eurigo.websocketlib;
+
+import org.java_websocket.WebSocket;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 20:20
+ * desc   : 连接过滤器，用于选择广播的目标连接
+ */
+public interface ConnectionFilter {
+
+    /**
+     * @return 是否向该连接发送
+     */
+    boolean accept(WebSocket conn);
+}
@@ -0,0 +1,150 @@
+package com.eurigo.websocketlib;
+
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+
+import java.util.zip.Deflater;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 19:00
+ * desc   : permessage-deflate（RFC 7692）压缩配置，客户端和服务端通用
+ * <p>
+ * 开启上下文接管（默认）时压缩字典跨消息保留，小JSON消息的压缩率明显更高，
+ * 但同一连接上的消息必须按顺序编码：WsClient内部已保证，服务端请勿在多个线程中同时向同一连接发送
+ */
+public final class DeflateConfig {
+
+    private final int compressionLevel;
+
+    private final int threshold;
+
+    private final boolean clientNoContextTakeover;
+
+    private final boolean serverNoContextTakeover;
+
+    private final boolean skipCompressedPayloads;
+
+    private final int maxInflatedMessageSize;
+
+    private DeflateConfig(Builder builder) {
+        if (builder.compressionLevel != Deflater.DEFAULT_COMPRESSION
+                && (builder.compressionLevel < Deflater.NO_COMPRESSION
+                || builder.compressionLevel > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("compressionLevel must be -1 or in [0, 9]");
+        }
+        if (builder.threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        if (builder.maxInflatedMessageSize <= 0) {
+            throw new IllegalArgumentException("maxInflatedMessageSize must be greater than 0");
+        }
+        this.compressionLevel = builder.compressionLevel;
+        this.threshold = builder.threshold;
+        this.clientNoContextTakeover = builder.clientNoContextTakeover;
+        this.serverNoContextTakeover = builder.serverNoContextTakeover;
+        this.skipCompressedPayloads = builder.skipCompressedPayloads;
+        this.maxInflatedMessageSize = builder.maxInflatedMessageSize;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public boolean isClientNoContextTakeover() {
+        return clientNoContextTakeover;
+    }
+
+    public boolean isServerNoContextTakeover() {
+        return serverNoContextTakeover;
+    }
+
+    public boolean isSkipCompressedPayloads() {
+        return skipCompressedPayloads;
+    }
+
+    public int getMaxInflatedMessageSize() {
+        return maxInflatedMessageSize;
+    }
+
+    /**
+     * @return 带有本配置压缩扩展的协议，对端不支持时自动回退为不压缩
+     */
+    public Draft createDraft() {
+        return new Draft_6455(new DeflateExtension(this));
+    }
+
+    public static final class Builder {
+
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        private int threshold = 256;
+
+        private boolean clientNoContextTakeover;
+
+        private boolean serverNoContextTakeover;
+
+        private boolean skipCompressedPayloads = true;
+
+        private int maxInflatedMessageSize = 16 * 1024 * 1024;
+
+        /**
+         * 压缩级别0~9，默认-1即zlib的默认级别6，级别越高CPU占用越大
+         */
+        public Builder setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * 小于该字节数的消息不压缩，默认256
+         */
+        public Builder setThreshold(int threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * 要求客户端每条消息后重置压缩字典，默认false。
+         * 压缩率下降，但双方都不必为该方向保留32KB的滑动窗口
+         */
+        public Builder setClientNoContextTakeover(boolean clientNoContextTakeover) {
+            this.clientNoContextTakeover = clientNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * 要求服务端每条消息后重置压缩字典，默认false
+         */
+        public Builder setServerNoContextTakeover(boolean serverNoContextTakeover) {
+            this.serverNoContextTakeover = serverNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * 是否跳过已压缩的二进制消息（gzip、zip、png、jpeg等），默认true。
+         * 本端不接管上下文时，压缩后没有变小的消息也会以原文发送
+         */
+        public Builder setSkipCompressedPayloads(boolean skipCompressedPayloads) {
+            this.skipCompressedPayloads = skipCompressedPayloads;
+            return this;
+        }
+
+        /**
+         * 收到的一条压缩消息解压后的最大字节数，分片消息按所有分片累计，超过时以1009关闭连接，默认16MB。
+         * 很小的压缩帧可以解压出极大的数据，防止对端以此耗尽内存
+         */
+        public Builder setMaxInflatedMessageSize(int maxInflatedMessageSize) {
+            this.maxInflatedMessageSize = maxInflatedMessageSize;
+            return this;
+        }
+
+        public DeflateConfig build() {
+            return new DeflateConfig(this);
+        }
+    }
+}
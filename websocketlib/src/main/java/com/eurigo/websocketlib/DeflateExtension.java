@@ -0,0 +1,558 @@
+package com.eurigo.websocketlib;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.exceptions.InvalidFrameException;
+import org.java_websocket.extensions.CompressionExtension;
+import org.java_websocket.extensions.ExtensionRequestData;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.ContinuousFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.FramedataImpl1;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 19:10
+ * desc   : permessage-deflate扩展，按{@link DeflateConfig}协商，每个连接一个实例并统计压缩率
+ * <p>
+ * 与Java-WebSocket自带的PerMessageDeflateExtension相比：
+ * 按position/limit读取负载，支持切片、只读和直接缓冲区；按消息而不是按帧决定是否压缩，
+ * 分片消息不会出现首帧未压缩而后续帧被压缩的情况；支持上下文接管
+ */
+public class DeflateExtension extends CompressionExtension {
+
+    private static final String EXTENSION_NAME = "permessage-deflate";
+
+    private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+
+    private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+
+    private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+
+    private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+
+    /**
+     * Deflater只支持15位的滑动窗口
+     */
+    private static final String MAX_WINDOW_BITS = "15";
+
+    private static final byte[] TAIL = {0, 0, (byte) 0xff, (byte) 0xff};
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /**
+     * 超过该大小的临时缓冲区用完即丢弃，避免一条大消息长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final DeflateConfig config;
+
+    private Deflater deflater;
+
+    private Inflater inflater;
+
+    /**
+     * 本端每条消息后重置Deflater，即对端要求本端不接管上下文
+     */
+    private boolean resetDeflaterPerMessage;
+
+    /**
+     * 每条消息后重置Inflater，即对端不接管上下文
+     */
+    private boolean resetInflaterPerMessage;
+
+    private String responseAsServer = EXTENSION_NAME;
+
+    /**
+     * 当前发送的消息是否压缩，持有发送锁时访问
+     */
+    private boolean compressingMessage;
+
+    /**
+     * 当前接收的消息是否压缩，只在读线程中访问
+     */
+    private boolean inflatingMessage;
+
+    /**
+     * 已解压的输入是否恰好以BFINAL块结束，此时Inflater已重置，不能再补回消息末尾的0x00 0x00 0xff 0xff，只在读线程中访问
+     */
+    private boolean inflaterFinished;
+
+    /**
+     * 当前接收的消息已解压的字节数，跨分片累计，只在读线程中访问
+     */
+    private long inflatedMessageBytes;
+
+    private byte[] deflateBuffer;
+
+    private byte[] inflateBuffer;
+
+    private final Object encodeLock = new Object();
+
+    private final AtomicLong rawBytesSent = new AtomicLong();
+
+    private final AtomicLong wireBytesSent = new AtomicLong();
+
+    private final AtomicLong compressedMessages = new AtomicLong();
+
+    private final AtomicLong skippedMessages = new AtomicLong();
+
+    private final AtomicLong wireBytesReceived = new AtomicLong();
+
+    private final AtomicLong rawBytesReceived = new AtomicLong();
+
+    public DeflateExtension(DeflateConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config must not be null");
+        }
+        this.config = config;
+    }
+
+    /**
+     * @return 连接协商的压缩扩展，未协商压缩时为空
+     */
+    public static DeflateExtension of(WebSocket conn) {
+        if (!(conn instanceof WebSocketImpl)) {
+            return null;
+        }
+        Draft draft = ((WebSocketImpl) conn).getDraft();
+        if (draft instanceof Draft_6455 && ((Draft_6455) draft).getExtension() instanceof DeflateExtension) {
+            return (DeflateExtension) ((Draft_6455) draft).getExtension();
+        }
+        return null;
+    }
+
+    public DeflateConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return 发送的数据帧压缩前的字节数
+     */
+    public long getRawBytesSent() {
+        return rawBytesSent.get();
+    }
+
+    /**
+     * @return 发送的数据帧压缩后的字节数，不含帧头
+     */
+    public long getWireBytesSent() {
+        return wireBytesSent.get();
+    }
+
+    public long getCompressedMessages() {
+        return compressedMessages.get();
+    }
+
+    /**
+     * @return 因小于阈值、已压缩或压缩无收益而以原文发送的消息数
+     */
+    public long getSkippedMessages() {
+        return skippedMessages.get();
+    }
+
+    /**
+     * @return 收到的数据帧解压前的字节数，不含帧头，未压缩的消息按原长度计入
+     */
+    public long getWireBytesReceived() {
+        return wireBytesReceived.get();
+    }
+
+    /**
+     * @return 收到的数据帧解压后的字节数，未压缩的消息按原长度计入
+     */
+    public long getRawBytesReceived() {
+        return rawBytesReceived.get();
+    }
+
+    /**
+     * @return 发送方向的压缩率，压缩后/压缩前，越小越好，尚未发送时为1
+     */
+    public double getCompressionRatio() {
+        long raw = rawBytesSent.get();
+        return raw == 0 ? 1 : (double) wireBytesSent.get() / raw;
+    }
+
+    @Override
+    public void encodeFrame(Framedata inputFrame) {
+        if (!(inputFrame instanceof DataFrame)) {
+            return;
+        }
+        synchronized (encodeLock) {
+            ByteBuffer payload = inputFrame.getPayloadData();
+            int length = payload.remaining();
+            boolean first = !(inputFrame instanceof ContinuousFrame);
+            if (first) {
+                compressingMessage = shouldCompress(inputFrame, payload);
+            }
+            rawBytesSent.addAndGet(length);
+            if (!compressingMessage) {
+                if (first) {
+                    skippedMessages.incrementAndGet();
+                }
+                wireBytesSent.addAndGet(length);
+                return;
+            }
+            int size = deflate(payload, inputFrame.isFin());
+            // 本端不接管上下文时可以丢弃压缩结果，单帧消息压缩后没有变小就发送原文
+            if (first && inputFrame.isFin() && resetDeflaterPerMessage
+                    && config.isSkipCompressedPayloads() && size >= length) {
+                skippedMessages.incrementAndGet();
+                wireBytesSent.addAndGet(length);
+                return;
+            }
+            if (first) {
+                ((DataFrame) inputFrame).setRSV1(true);
+                compressedMessages.incrementAndGet();
+            }
+            wireBytesSent.addAndGet(size);
+            ((FramedataImpl1) inputFrame).setPayload(ByteBuffer.wrap(Arrays.copyOf(deflateBuffer, size)));
+            releaseDeflateBuffer();
+        }
+    }
+
+    private boolean shouldCompress(Framedata frame, ByteBuffer payload) {
+        if (payload.remaining() < config.getThreshold()) {
+            return false;
+        }
+        return !(config.isSkipCompressedPayloads() && frame.getOpcode() == Opcode.BINARY
+                && looksCompressed(payload));
+    }
+
+    /**
+     * @return 压缩后的字节数，结果在deflateBuffer中
+     */
+    private int deflate(ByteBuffer payload, boolean fin) {
+        if (deflater == null) {
+            deflater = new Deflater(config.getCompressionLevel(), true);
+        }
+        int length = payload.remaining();
+        if (payload.hasArray()) {
+            deflater.setInput(payload.array(), payload.arrayOffset() + payload.position(), length);
+        } else {
+            byte[] copy = new byte[length];
+            payload.duplicate().get(copy);
+            deflater.setInput(copy);
+        }
+        byte[] buffer = deflateBuffer;
+        if (buffer == null) {
+            buffer = new byte[Math.max(INITIAL_BUFFER_SIZE, Math.min(length, MAX_RETAINED_BUFFER_SIZE))];
+        }
+        int size = 0;
+        while (true) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            size += deflater.deflate(buffer, size, buffer.length - size, Deflater.SYNC_FLUSH);
+            // SYNC_FLUSH在输出缓冲区未写满时表示输入已全部压缩并刷新
+            if (size < buffer.length) {
+                break;
+            }
+        }
+        deflateBuffer = buffer;
+        if (fin) {
+            // RFC 7692 7.2.1，消息末尾的0x00 0x00 0xff 0xff由接收方补回
+            if (endsWithTail(buffer, size)) {
+                size -= TAIL.length;
+            }
+            if (resetDeflaterPerMessage) {
+                deflater.reset();
+            }
+        }
+        return size;
+    }
+
+    private void releaseDeflateBuffer() {
+        if (deflateBuffer != null && deflateBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            deflateBuffer = null;
+        }
+    }
+
+    @Override
+    public void decodeFrame(Framedata inputFrame) throws InvalidDataException {
+        if (!(inputFrame instanceof DataFrame)) {
+            return;
+        }
+        boolean first = inputFrame.getOpcode() != Opcode.CONTINUOUS;
+        if (first) {
+            inflatingMessage = inputFrame.isRSV1();
+            inflaterFinished = false;
+            inflatedMessageBytes = 0;
+        } else if (inputFrame.isRSV1()) {
+            throw new InvalidDataException(CloseFrame.POLICY_VALIDATION,
+                    "RSV1 bit can only be set for the first frame.");
+        }
+        ByteBuffer payload = inputFrame.getPayloadData();
+        int length = payload.remaining();
+        wireBytesReceived.addAndGet(length);
+        if (!inflatingMessage) {
+            rawBytesReceived.addAndGet(length);
+            return;
+        }
+        int size;
+        try {
+            if (payload.hasArray()) {
+                size = inflate(payload.array(), payload.arrayOffset() + payload.position(), length, 0);
+            } else {
+                byte[] copy = new byte[length];
+                payload.duplicate().get(copy);
+                size = inflate(copy, 0, length, 0);
+            }
+            if (inputFrame.isFin()) {
+                if (!inflaterFinished) {
+                    size = inflate(TAIL, 0, TAIL.length, size);
+                }
+                if (resetInflaterPerMessage) {
+                    inflater.reset();
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new InvalidDataException(CloseFrame.POLICY_VALIDATION, e.getMessage());
+        }
+        inflatedMessageBytes += size;
+        rawBytesReceived.addAndGet(size);
+        ((FramedataImpl1) inputFrame).setPayload(ByteBuffer.wrap(Arrays.copyOf(inflateBuffer, size)));
+        if (inflateBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            inflateBuffer = null;
+        }
+    }
+
+    /**
+     * 解压并追加到inflateBuffer的size位置，整条消息解压后超过{@link DeflateConfig#getMaxInflatedMessageSize()}时抛出
+     *
+     * @return 追加后的总字节数
+     */
+    private int inflate(byte[] data, int offset, int length, int size)
+            throws DataFormatException, InvalidDataException {
+        // 本帧最多还能解压的字节数
+        long limit = config.getMaxInflatedMessageSize() - inflatedMessageBytes;
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        byte[] buffer = inflateBuffer;
+        if (buffer == null) {
+            buffer = new byte[Math.max(INITIAL_BUFFER_SIZE, Math.min(length * 4, MAX_RETAINED_BUFFER_SIZE))];
+        }
+        inflater.setInput(data, offset, length);
+        if (length > 0) {
+            inflaterFinished = false;
+        }
+        while (true) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, limit + 1));
+            }
+            int inflated = inflater.inflate(buffer, size, buffer.length - size);
+            size += inflated;
+            if (size > limit) {
+                throw new InvalidDataException(CloseFrame.TOOBIG, "Inflated message exceeds "
+                        + config.getMaxInflatedMessageSize() + " bytes");
+            }
+            if (inflater.finished()) {
+                // 对端以BFINAL块结束了消息，重置后继续解压剩余的输入
+                int remaining = inflater.getRemaining();
+                inflater.reset();
+                if (remaining == 0) {
+                    inflaterFinished = true;
+                    break;
+                }
+                inflater.setInput(data, offset + length - remaining, remaining);
+                continue;
+            }
+            if (inflated == 0) {
+                if (inflater.needsDictionary()) {
+                    throw new DataFormatException("Preset dictionary is not supported");
+                }
+                if (size < buffer.length) {
+                    break;
+                }
+            }
+        }
+        inflateBuffer = buffer;
+        return size;
+    }
+
+    private static boolean endsWithTail(byte[] data, int size) {
+        if (size < TAIL.length) {
+            return false;
+        }
+        for (int i = 0; i < TAIL.length; i++) {
+            if (data[size - TAIL.length + i] != TAIL[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按文件头判断常见的已压缩格式
+     */
+    private static boolean looksCompressed(ByteBuffer payload) {
+        int p = payload.position();
+        int n = payload.remaining();
+        if (n < 4) {
+            return false;
+        }
+        int b0 = payload.get(p) & 0xff;
+        int b1 = payload.get(p + 1) & 0xff;
+        int b2 = payload.get(p + 2) & 0xff;
+        int b3 = payload.get(p + 3) & 0xff;
+        // gzip
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return true;
+        }
+        // zip、jar、apk
+        if (b0 == 'P' && b1 == 'K' && b2 == 3 && b3 == 4) {
+            return true;
+        }
+        // png
+        if (b0 == 0x89 && b1 == 'P' && b2 == 'N' && b3 == 'G') {
+            return true;
+        }
+        // jpeg
+        if (b0 == 0xff && b1 == 0xd8 && b2 == 0xff) {
+            return true;
+        }
+        // gif
+        if (b0 == 'G' && b1 == 'I' && b2 == 'F' && b3 == '8') {
+            return true;
+        }
+        // 7z
+        if (b0 == '7' && b1 == 'z' && b2 == 0xbc && b3 == 0xaf) {
+            return true;
+        }
+        // zstd
+        if (b0 == 0x28 && b1 == 0xb5 && b2 == 0x2f && b3 == 0xfd) {
+            return true;
+        }
+        // xz
+        if (b0 == 0xfd && b1 == '7' && b2 == 'z' && b3 == 'X') {
+            return true;
+        }
+        // bzip2
+        if (b0 == 'B' && b1 == 'Z' && b2 == 'h') {
+            return true;
+        }
+        // ogg
+        if (b0 == 'O' && b1 == 'g' && b2 == 'g' && b3 == 'S') {
+            return true;
+        }
+        if (n >= 12) {
+            // webp
+            if (b0 == 'R' && b1 == 'I' && b2 == 'F' && b3 == 'F' && payload.get(p + 8) == 'W'
+                    && payload.get(p + 9) == 'E' && payload.get(p + 10) == 'B' && payload.get(p + 11) == 'P') {
+                return true;
+            }
+            // mp4、heic
+            return payload.get(p + 4) == 'f' && payload.get(p + 5) == 't'
+                    && payload.get(p + 6) == 'y' && payload.get(p + 7) == 'p';
+        }
+        return false;
+    }
+
+    @Override
+    public boolean acceptProvidedExtensionAsServer(String inputExtension) {
+        for (String extension : inputExtension.split(",")) {
+            ExtensionRequestData data = ExtensionRequestData.parseExtensionRequest(extension);
+            if (!EXTENSION_NAME.equalsIgnoreCase(data.getExtensionName())) {
+                continue;
+            }
+            Map<String, String> params = data.getExtensionParameters();
+            String serverWindowBits = params.get(SERVER_MAX_WINDOW_BITS);
+            if (serverWindowBits != null && !MAX_WINDOW_BITS.equals(serverWindowBits)) {
+                // 无法满足更小的窗口，尝试客户端的下一个候选
+                continue;
+            }
+            boolean serverNoContextTakeover = config.isServerNoContextTakeover()
+                    || params.containsKey(SERVER_NO_CONTEXT_TAKEOVER);
+            boolean clientNoContextTakeover = config.isClientNoContextTakeover()
+                    || params.containsKey(CLIENT_NO_CONTEXT_TAKEOVER);
+            resetDeflaterPerMessage = serverNoContextTakeover;
+            resetInflaterPerMessage = clientNoContextTakeover;
+            responseAsServer = EXTENSION_NAME
+                    + (serverNoContextTakeover ? "; " + SERVER_NO_CONTEXT_TAKEOVER : "")
+                    + (clientNoContextTakeover ? "; " + CLIENT_NO_CONTEXT_TAKEOVER : "");
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean acceptProvidedExtensionAsClient(String inputExtension) {
+        for (String extension : inputExtension.split(",")) {
+            ExtensionRequestData data = ExtensionRequestData.parseExtensionRequest(extension);
+            if (!EXTENSION_NAME.equalsIgnoreCase(data.getExtensionName())) {
+                continue;
+            }
+            Map<String, String> params = data.getExtensionParameters();
+            // 没有请求client_max_window_bits，服务端不应返回，返回了也无法满足
+            if (params.containsKey(CLIENT_MAX_WINDOW_BITS)) {
+                return false;
+            }
+            resetDeflaterPerMessage = config.isClientNoContextTakeover()
+                    || params.containsKey(CLIENT_NO_CONTEXT_TAKEOVER);
+            resetInflaterPerMessage = params.containsKey(SERVER_NO_CONTEXT_TAKEOVER);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String getProvidedExtensionAsClient() {
+        return EXTENSION_NAME
+                + (config.isClientNoContextTakeover() ? "; " + CLIENT_NO_CONTEXT_TAKEOVER : "")
+                + (config.isServerNoContextTakeover() ? "; " + SERVER_NO_CONTEXT_TAKEOVER : "");
+    }
+
+    @Override
+    public String getProvidedExtensionAsServer() {
+        return responseAsServer;
+    }
+
+    @Override
+    public IExtension copyInstance() {
+        return new DeflateExtension(config);
+    }
+
+    @Override
+    public void isFrameValid(Framedata inputFrame) throws InvalidDataException {
+        if (inputFrame instanceof ContinuousFrame
+                && (inputFrame.isRSV1() || inputFrame.isRSV2() || inputFrame.isRSV3())) {
+            throw new InvalidFrameException("bad rsv RSV1: " + inputFrame.isRSV1()
+                    + " RSV2: " + inputFrame.isRSV2() + " RSV3: " + inputFrame.isRSV3());
+        }
+        super.isFrameValid(inputFrame);
+    }
+
+    @Override
+    public void reset() {
+        synchronized (encodeLock) {
+            compressingMessage = false;
+            if (deflater != null) {
+                deflater.reset();
+            }
+        }
+        inflatingMessage = false;
+        if (inflater != null) {
+            inflater.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DeflateExtension";
+    }
+}
@@ -0,0 +1,29 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 解码后的消息回调，与{@link IWebSocketListener}在同一个回调执行器中按顺序执行
+ *
+ * @param <T> 消息类型
+ */
+public interface IMessageListener<T> {
+
+    /**
+     * 接收到消息
+     *
+     * @param client  客户端
+     * @param message 解码后的消息
+     */
+    void onMessage(WsClient client, T message);
+
+    /**
+     * 解码失败，该消息不再回调
+     *
+     * @param client 客户端
+     * @param ex     解码器抛出的异常
+     */
+    default void onDecodeError(WsClient client, Exception ex) {
+
+    }
+}
@@ -0,0 +1,26 @@
+package com.eurigo.websocketlib;
+
+import java.util.Map;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:50
+ * desc   : {@link WsManager#startAll(int, long, IStartListener)}的结果回调，
+ * 在得出结果的线程中回调（连接的读线程或IO线程池），请勿执行耗时操作
+ */
+public interface IStartListener {
+
+    /**
+     * 单个WebSocket得出结果，每个wsKey回调一次
+     */
+    default void onResult(ConnectResult result) {
+
+    }
+
+    /**
+     * 所有WebSocket都已得出结果
+     *
+     * @param results key为wsKey
+     */
+    void onComplete(Map<String, ConnectResult> results);
+}
@@ -0,0 +1,34 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:20
+ * desc   : 流式发送的进度回调，与{@link IWebSocketListener}在同一个回调执行器中按顺序执行
+ */
+public interface IStreamListener {
+
+    /**
+     * 一个分片已交给Java-WebSocket
+     *
+     * @param sentBytes  已发送的字节数
+     * @param totalBytes 总字节数，未知时为-1
+     */
+    default void onProgress(long sentBytes, long totalBytes) {
+
+    }
+
+    /**
+     * 最后一个分片已交给Java-WebSocket
+     *
+     * @param totalBytes 实际发送的字节数
+     */
+    void onComplete(long totalBytes);
+
+    /**
+     * 发送失败或被取消，已发出部分分片时连接会被关闭
+     *
+     * @param sentBytes 失败前已发送的字节数
+     * @param ex        读取或发送时的异常，取消时为{@link java.util.concurrent.CancellationException}
+     */
+    void onFailure(long sentBytes, Exception ex);
+}
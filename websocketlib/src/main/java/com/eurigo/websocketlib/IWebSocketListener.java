@@ -53,7 +53,8 @@ public interface IWebSocketListener {
     void onMessage(WsClient client, String message);
 
     /**
-     * 接收到消息
+     * 接收到二进制消息
+     * bytes为帧数据本身，未做拷贝，每条消息独立分配，回调结束后仍可持有使用
      *
      * @param client 客户端
      * @param bytes  消息
@@ -90,4 +91,45 @@ public interface IWebSocketListener {
     default void onSendMessage(WsClient client, byte[] message) {
 
     }
+
+    /**
+     * 发送二进制消息成功，回调结束后缓冲区会交给回收器，请勿持有
+     *
+     * @param client  客户端
+     * @param message 发送的消息，分片发送时每个分片回调一次
+     */
+    default void onSendMessage(WsClient client, ByteBuffer message) {
+
+    }
+
+    /**
+     * 消息未发送而被丢弃，包括发送队列溢出和连接断开时未写出的消息
+     *
+     * @param client  客户端
+     * @param message 被丢弃的消息，类型为String、byte[]、ByteBuffer或ByteBuffer[]
+     */
+    default void onSendDropped(WsClient client, Object message) {
+
+    }
+
+    /**
+     * 发送队列可写状态变化，超过高水位时为false，回落到低水位时为true，
+     * 生产者可据此暂停或恢复发送
+     *
+     * @param client   客户端
+     * @param writable 是否可写
+     */
+    default void onWritabilityChanged(WsClient client, boolean writable) {
+
+    }
+
+    /**
+     * 配置了{@link SessionConfig}时，重连后服务端未恢复会话，双方序号从1重新开始，
+     * 断开前发出但未确认的消息已通过onSendDropped通知，可在此重新同步状态
+     *
+     * @param client 客户端
+     */
+    default void onSessionReset(WsClient client) {
+
+    }
 }
@@ -4,6 +4,8 @@ import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author eurigo
  * Created on 2025/3/6 17:16
@@ -26,6 +28,17 @@ public interface IWebSocketServerListener {
      */
     void onWsMessage(WebSocket conn, String message);
 
+    /**
+     * 接收到二进制消息
+     * message为帧数据本身，未做拷贝，每条消息独立分配，回调结束后仍可持有使用
+     *
+     * @param conn    客户端
+     * @param message 消息
+     */
+    default void onWsMessage(WebSocket conn, ByteBuffer message) {
+
+    }
+
     /**
      * 连接异常
      *
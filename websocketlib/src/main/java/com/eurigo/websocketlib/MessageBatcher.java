@@ -0,0 +1,180 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.HashedWheelTimer;
+import com.eurigo.websocketlib.util.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 17:20
+ * desc   : 文本消息批量发送，窗口内的消息暂存在本地，
+ * 达到时间、字节或条数上限后按{@link BatchConfig.Mode}一次交给发送流程。
+ * <p>
+ * 批次在锁内取出，在锁外由单个线程按取出的顺序交给发送流程，发送队列阻塞或流式发送占用连接时，
+ * 其他线程的send只追加到批次中，不会等待
+ */
+final class MessageBatcher {
+
+    private final WsClient client;
+
+    private final BatchConfig config;
+
+    private final Object lock = new Object();
+
+    private List<String> pending = new ArrayList<>();
+
+    private long pendingBytes;
+
+    private HashedWheelTimer.Timeout flushTimeout;
+
+    /**
+     * 已取出但尚未交给发送流程的批次，在锁内按顺序加入
+     */
+    private final Queue<List<String>> ready = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 正在交出批次的线程
+     */
+    private final AtomicReference<Thread> handingOff = new AtomicReference<>();
+
+    private final Runnable flushTask = () -> {
+        synchronized (lock) {
+            readyLocked();
+        }
+        handOff(false);
+    };
+
+    MessageBatcher(WsClient client, BatchConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    void add(String text) {
+        synchronized (lock) {
+            pending.add(text);
+            // 按字符数估算，避免在发送线程中计算UTF-8长度
+            pendingBytes += text.length();
+            if (pending.size() < config.getMaxBatchMessages()
+                    && pendingBytes < config.getMaxBatchBytes()) {
+                if (flushTimeout == null) {
+                    flushTimeout = ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), flushTask
+                            , config.getWindowMillis(), TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+            readyLocked();
+        }
+        handOff(false);
+    }
+
+    /**
+     * 立即写出当前批次，发送二进制消息前调用，返回时之前的批次都已交给发送流程，以保证顺序
+     */
+    void flush() {
+        synchronized (lock) {
+            readyLocked();
+        }
+        handOff(true);
+    }
+
+    /**
+     * 由单个线程按顺序把已取出的批次交给发送流程
+     *
+     * @param wait 其他线程正在交出时是否等待其完成
+     */
+    private void handOff(boolean wait) {
+        Thread current = Thread.currentThread();
+        while (true) {
+            if (handingOff.compareAndSet(null, current)) {
+                try {
+                    List<String> batch;
+                    while ((batch = ready.poll()) != null) {
+                        Object payload = config.getMode() == BatchConfig.Mode.ENVELOPE
+                                ? config.getCodec().encode(batch) : new TextBatch(batch);
+                        client.enqueueBatch(payload, batch);
+                    }
+                } finally {
+                    handingOff.set(null);
+                    synchronized (lock) {
+                        lock.notifyAll();
+                    }
+                }
+                // 释放前其他线程加入的批次
+                if (ready.isEmpty()) {
+                    return;
+                }
+            } else if (!wait || handingOff.get() == current) {
+                // 交出批次的线程会处理新加入的批次；回调中再次发送时不能等待自己
+                return;
+            } else {
+                synchronized (lock) {
+                    while (handingOff.get() != null) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 持有锁时调用，取出当前批次放入待交出的队列
+     */
+    private void readyLocked() {
+        List<String> batch = takeLocked();
+        if (batch != null) {
+            ready.add(batch);
+        }
+    }
+
+    private List<String> takeLocked() {
+        if (flushTimeout != null) {
+            flushTimeout.cancel();
+            flushTimeout = null;
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        List<String> batch = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        return batch;
+    }
+
+    /**
+     * 连接断开，丢弃未写出的批次
+     */
+    void clear() {
+        List<String> dropped;
+        synchronized (lock) {
+            dropped = takeLocked();
+        }
+        if (dropped != null) {
+            for (String text : dropped) {
+                client.notifySendDropped(text);
+            }
+        }
+    }
+
+    /**
+     * COALESCE_FRAMES模式的一个批次，每条消息编码为独立的帧，合并为一次写入
+     */
+    static final class TextBatch {
+
+        final List<String> messages;
+
+        TextBatch(List<String> messages) {
+            this.messages = messages;
+        }
+    }
+}
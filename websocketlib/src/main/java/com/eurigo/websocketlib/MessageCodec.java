@@ -0,0 +1,47 @@
+package com.eurigo.websocketlib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 消息编解码，通过{@link WsClient.Builder#setMessageCodec(MessageCodec, IMessageListener)}设置，
+ * 收到的消息在读线程中解码一次，再按类型回调{@link IMessageListener#onMessage(WsClient, Object)}，
+ * {@link WsClient#getMessageSender}返回的{@link MessageSender}按同一编码发送。
+ * <p>
+ * JSON等文本格式实现{@link TextMessageCodec}，protobuf、CBOR等二进制格式实现{@link BinaryMessageCodec}，
+ * 二进制编码写入的数据直接进入池化的缓冲区
+ *
+ * @param <T> 消息类型
+ */
+public interface MessageCodec<T> {
+
+    /**
+     * 每个WsClient创建一个，只在该连接的读线程中使用，可复用解析器和临时缓冲区
+     */
+    Decoder<T> newDecoder();
+
+    /**
+     * 解码器，返回null时不是该类型的消息，按原始消息回调{@link IWebSocketListener#onMessage}
+     */
+    interface Decoder<T> {
+
+        /**
+         * 解码文本消息
+         */
+        default T decode(String message) throws IOException {
+            return null;
+        }
+
+        /**
+         * 解码二进制消息，frame为帧数据本身，未做拷贝，
+         * 可通过{@link com.eurigo.websocketlib.util.ByteBufferInputStream}直接交给基于流的解析器
+         *
+         * @param frame 从position到limit的数据
+         */
+        default T decode(ByteBuffer frame) throws IOException {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ByteBufferPool;
+
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 按{@link MessageCodec}编码后发送，通过{@link WsClient#getMessageSender}获取，
+ * 消息类型由编解码器确定，可在多个线程中使用
+ *
+ * @param <T> 消息类型
+ */
+public final class MessageSender<T> {
+
+    private final WsClient client;
+
+    /**
+     * 与binaryCodec二选一
+     */
+    private final TextMessageCodec<T> textCodec;
+
+    private final BinaryMessageCodec<T> binaryCodec;
+
+    MessageSender(WsClient client, TextMessageCodec<T> textCodec, BinaryMessageCodec<T> binaryCodec) {
+        this.client = client;
+        this.textCodec = textCodec;
+        this.binaryCodec = binaryCodec;
+    }
+
+    public WsClient getClient() {
+        return client;
+    }
+
+    /**
+     * 编码后发送。二进制消息写入BufferRecycler为{@link ByteBufferPool}时的池化缓冲区，
+     * 超过一个缓冲区时分片发送，缓冲区的回收同{@link WsClient#send(ByteBuffer...)}
+     *
+     * @throws IllegalArgumentException 编码失败
+     */
+    public void send(T message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        if (!client.isOpen() && client.getOutbox() == null) {
+            throw new WebsocketNotConnectedException();
+        }
+        if (textCodec != null) {
+            String text;
+            try {
+                text = textCodec.encode(message);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to encode message", e);
+            }
+            client.send(text);
+            return;
+        }
+        BufferRecycler recycler = client.getBufferRecycler();
+        PooledOutputStream out = new PooledOutputStream(
+                recycler instanceof ByteBufferPool ? (ByteBufferPool) recycler : null);
+        try {
+            binaryCodec.encode(message, out);
+        } catch (IOException e) {
+            out.release();
+            throw new IllegalArgumentException("Failed to encode message", e);
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+        ByteBuffer[] buffers = out.toBuffers();
+        if (buffers.length == 1) {
+            client.send(buffers[0]);
+        } else {
+            client.send(buffers);
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 16:20
+ * desc   : WsClient的有界发送队列
+ * <p>
+ * 消息先进入本队列，由单个drain线程按顺序交给Java-WebSocket，
+ * 交出后仍计入占用，直到对应的帧从Java-WebSocket的outQueue中取出。
+ * Java-WebSocket没有写出回调，存在积压时通过共享时间轮定时检查
+ */
+final class OutboundQueue {
+
+    private static final long DRAIN_INTERVAL_MILLIS = 10;
+
+    private final WsClient client;
+
+    private final SendQueueConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * 等待交给Java-WebSocket的消息
+     */
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+
+    /**
+     * 已交给Java-WebSocket但尚未写出的消息，只在drain线程中移除
+     */
+    private final ArrayDeque<Entry> inFlight = new ArrayDeque<>();
+
+    private long queuedBytes;
+
+    private long inFlightBytes;
+
+    private int inFlightFrames;
+
+    private int waiters;
+
+    /**
+     * 进入队列和离开队列（交出或丢弃）的消息总数，用于流式发送等待之前的消息
+     */
+    private long enqueuedCount;
+
+    private long dequeuedCount;
+
+    /**
+     * 进行中的流式发送数，期间暂停交出，消息留在本队列中，避免drain线程阻塞在发送锁上
+     */
+    private int pauses;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+
+    private final Runnable drainTask = () -> {
+        drainScheduled.set(false);
+        drain();
+    };
+
+    OutboundQueue(WsClient client, SendQueueConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    boolean isWritable() {
+        return writable.get();
+    }
+
+    /**
+     * @return 未写出的字节数
+     */
+    long getPendingBytes() {
+        tryReconcile();
+        lock.lock();
+        try {
+            return queuedBytes + inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 未写出的消息数
+     */
+    int getPendingMessages() {
+        tryReconcile();
+        lock.lock();
+        try {
+            return queue.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @throws SendQueueFullException FAIL_FAST或BLOCK等待超时，不通知onSendDropped，缓冲区由调用方回收
+     */
+    void offer(Object payload) {
+        Entry entry = new Entry(payload);
+        tryReconcile();
+        List<Entry> dropped = null;
+        SendQueueFullException rejected = null;
+        lock.lock();
+        try {
+            if (!hasRoom(entry)) {
+                switch (config.getOverflowPolicy()) {
+                    case BLOCK:
+                        if (!awaitRoom(entry)) {
+                            rejected = full();
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        dropped = new ArrayList<>();
+                        while (!hasRoom(entry) && !queue.isEmpty()) {
+                            Entry oldest = queue.pollFirst();
+                            queuedBytes -= oldest.size;
+                            dequeuedCount++;
+                            dropped.add(oldest);
+                        }
+                        // 已交出的帧无法撤回，仍然放不下时丢弃本条
+                        if (!hasRoom(entry)) {
+                            dropped.add(entry);
+                            entry = null;
+                        }
+                        break;
+                    case DROP_NEWEST:
+                        dropped = new ArrayList<>();
+                        dropped.add(entry);
+                        entry = null;
+                        break;
+                    default:
+                        rejected = full();
+                        break;
+                }
+            }
+            if (rejected == null && entry != null) {
+                queue.addLast(entry);
+                queuedBytes += entry.size;
+                enqueuedCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (rejected != null) {
+            throw rejected;
+        }
+        if (dropped != null) {
+            for (Entry e : dropped) {
+                notifyDropped(e);
+            }
+        }
+        updateWritability();
+        drain();
+    }
+
+    /**
+     * @return 是否在超时前等到了空间
+     */
+    private boolean awaitRoom(Entry entry) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeoutMillis());
+        waiters++;
+        try {
+            while (!hasRoom(entry)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                scheduleDrain();
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters--;
+        }
+    }
+
+    private SendQueueFullException full() {
+        return new SendQueueFullException("发送队列已满, key = " + client.getWsKey()
+                + ", pendingBytes = " + (queuedBytes + inFlightBytes)
+                + ", pendingMessages = " + (queue.size() + inFlight.size()));
+    }
+
+    /**
+     * 队列为空时总是允许，避免超过上限的单条消息永远无法发送
+     */
+    private boolean hasRoom(Entry entry) {
+        int messages = queue.size() + inFlight.size();
+        if (messages == 0) {
+            return true;
+        }
+        return queuedBytes + inFlightBytes + entry.size <= config.getMaxBytes()
+                && messages < config.getMaxMessages();
+    }
+
+    /**
+     * 按顺序把消息交给Java-WebSocket，同一时间只有一个线程执行
+     */
+    void drain() {
+        do {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                drainLocked();
+            } finally {
+                draining.set(false);
+            }
+        } while (canHandOff());
+        updateWritability();
+        if (needsDrainTick()) {
+            scheduleDrain();
+        }
+    }
+
+    private void drainLocked() {
+        while (true) {
+            Entry entry;
+            lock.lock();
+            try {
+                reconcile();
+                if (!canHandOffLocked()) {
+                    return;
+                }
+                entry = queue.pollFirst();
+                queuedBytes -= entry.size;
+                inFlight.addLast(entry);
+                inFlightBytes += entry.size;
+                inFlightFrames += entry.frames;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                client.write(entry.payload);
+                handedOff();
+            } catch (RuntimeException e) {
+                handedOff();
+                WsLogUtil.e("发送失败, key = {}, {}", client.getWsKey(), e.getMessage());
+                lock.lock();
+                try {
+                    if (inFlight.peekLast() == entry) {
+                        inFlight.pollLast();
+                        inFlightBytes -= entry.size;
+                        inFlightFrames -= entry.frames;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                client.notifySendDropped(entry.payload);
+                if (!client.isOpen()) {
+                    clear();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入Java-WebSocket之后才计数，流式发送据此判断之前的消息已经排在前面
+     */
+    private void handedOff() {
+        lock.lock();
+        try {
+            dequeuedCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Java-WebSocket按顺序写出帧，outQueue中剩余的帧数少于已交出的帧数时，最早交出的消息已经写出
+     */
+    private void reconcile() {
+        int engineFrames = client.getEngineQueuedFrames();
+        while (inFlightFrames > engineFrames && !inFlight.isEmpty()) {
+            Entry entry = inFlight.pollFirst();
+            inFlightBytes -= entry.size;
+            inFlightFrames -= entry.frames;
+        }
+        if (waiters > 0) {
+            notFull.signalAll();
+        }
+    }
+
+    /**
+     * 没有线程在drain时更新已写出的消息，避免用过期的占用判断队列已满
+     */
+    private void tryReconcile() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lock.lock();
+            try {
+                reconcile();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private boolean canHandOff() {
+        lock.lock();
+        try {
+            return canHandOffLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 交给Java-WebSocket的数据不超过高水位，超出的部分留在本队列中，以便按策略丢弃
+     */
+    private boolean canHandOffLocked() {
+        return pauses == 0 && !queue.isEmpty() && (inFlight.isEmpty() || inFlightBytes < config.getHighWaterMark());
+    }
+
+    private boolean needsDrainTick() {
+        lock.lock();
+        try {
+            return !queue.isEmpty() || waiters > 0 || (!inFlight.isEmpty() && !writable.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), drainTask
+                    , DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void updateWritability() {
+        long pendingBytes = getPendingBytes();
+        if (pendingBytes > config.getHighWaterMark()) {
+            if (writable.compareAndSet(true, false)) {
+                client.notifyWritabilityChanged(false);
+                scheduleDrain();
+            }
+        } else if (pendingBytes <= config.getLowWaterMark()) {
+            if (writable.compareAndSet(false, true)) {
+                client.notifyWritabilityChanged(true);
+            }
+        }
+    }
+
+    /**
+     * @return 目前进入过队列的消息总数
+     */
+    long getEnqueuedCount() {
+        lock.lock();
+        try {
+            return enqueuedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param count {@link #getEnqueuedCount()}的返回值
+     * @return 此前进入队列的消息是否都已交给Java-WebSocket或被丢弃
+     */
+    boolean isHandedOff(long count) {
+        lock.lock();
+        try {
+            return dequeuedCount >= count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 流式发送开始，之后的消息留在队列中，直到{@link #resume()}
+     */
+    void pause() {
+        lock.lock();
+        try {
+            pauses++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void resume() {
+        lock.lock();
+        try {
+            pauses--;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    /**
+     * 连接断开，丢弃所有未写出的消息
+     */
+    void clear() {
+        List<Entry> dropped;
+        lock.lock();
+        try {
+            dropped = new ArrayList<>(queue);
+            dequeuedCount += queue.size();
+            queue.clear();
+            inFlight.clear();
+            queuedBytes = 0;
+            inFlightBytes = 0;
+            inFlightFrames = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : dropped) {
+            notifyDropped(entry);
+        }
+        updateWritability();
+    }
+
+    private void notifyDropped(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        client.notifySendDropped(entry.payload);
+    }
+
+    private static final class Entry {
+
+        private final Object payload;
+
+        private final long size;
+
+        private final int frames;
+
+        Entry(Object payload) {
+            this.payload = payload;
+            if (payload instanceof String) {
+                size = utf8Length((String) payload);
+                frames = 1;
+            } else if (payload instanceof byte[]) {
+                size = ((byte[]) payload).length;
+                frames = 1;
+            } else if (payload instanceof ByteBuffer) {
+                size = ((ByteBuffer) payload).remaining();
+                frames = 1;
+            } else if (payload instanceof ByteBuffer[]) {
+                long total = 0;
+                for (ByteBuffer buffer : (ByteBuffer[]) payload) {
+                    total += buffer.remaining();
+                }
+                size = total;
+                frames = ((ByteBuffer[]) payload).length;
+            } else if (payload instanceof MessageBatcher.TextBatch) {
+                long total = 0;
+                for (String text : ((MessageBatcher.TextBatch) payload).messages) {
+                    total += utf8Length(text);
+                }
+                size = total;
+                // 整个批次合并为一次写入
+                frames = 1;
+            } else {
+                throw new IllegalArgumentException("Unsupported payload: " + payload);
+            }
+        }
+
+    }
+
+    /**
+     * @return 文本按UTF-8编码后的字节数，不实际编码
+     */
+    static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,204 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.CloseFrame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:25
+ * desc   : 一次流式发送，通过{@link WsClient#sendStream}创建，在后台线程中边读边发，
+ * 整个数据流作为一条二进制消息按分片发送，内存中只保留一个分片。
+ * <p>
+ * 创建前已进入发送队列的消息先于本消息发送。
+ * 协议不允许其他消息的数据帧插入分片之间，发送期间发送队列暂停交出，未配置发送队列时发送线程等待本消息发送完成。
+ * ping、pong、close等控制帧可以插入：Java-WebSocket中积压的帧达到maxQueuedFragments时暂停读取，
+ * 控制帧最多排在这几个分片之后，而不是整个数据流之后
+ */
+public final class OutboundStream {
+
+    /**
+     * 等待积压的帧写出时的检查间隔
+     */
+    private static final long PACING_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final WsClient client;
+
+    private final ReadableByteChannel channel;
+
+    private final long totalBytes;
+
+    private final StreamConfig config;
+
+    private final IStreamListener listener;
+
+    private final Executor callbacks;
+
+    /**
+     * 未配置发送队列时为null
+     */
+    private final OutboundQueue queue;
+
+    /**
+     * 创建时发送队列中已有的消息数，这些消息交出后才开始发送
+     */
+    private final long queuedBefore;
+
+    private volatile long sentBytes;
+
+    private volatile boolean cancelled;
+
+    private volatile boolean done;
+
+    OutboundStream(WsClient client, ReadableByteChannel channel, long totalBytes, StreamConfig config
+            , IStreamListener listener, Executor callbacks, OutboundQueue queue) {
+        this.client = client;
+        this.channel = channel;
+        this.totalBytes = totalBytes;
+        this.config = config;
+        this.listener = listener;
+        this.callbacks = callbacks;
+        this.queue = queue;
+        this.queuedBefore = queue == null ? 0 : queue.getEnqueuedCount();
+    }
+
+    /**
+     * @return 已交给Java-WebSocket的字节数
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    /**
+     * @return 总字节数，未知时为-1
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * 取消发送，已发出部分分片时消息无法完整结束，只能关闭连接
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 在后台线程中执行，直到发送完成或失败
+     */
+    void run() {
+        ByteBuffer buffer = ByteBuffer.allocate(config.getFragmentSize());
+        long sent = 0;
+        boolean started = false;
+        boolean paused = false;
+        try {
+            awaitQueued();
+            synchronized (client.getSendLock()) {
+                if (queue != null) {
+                    queue.pause();
+                    paused = true;
+                }
+                while (true) {
+                    buffer.clear();
+                    boolean eof = fill(buffer);
+                    buffer.flip();
+                    awaitCapacity();
+                    int length = buffer.remaining();
+                    client.sendFragmentedFrame(Opcode.BINARY, buffer, eof);
+                    started = true;
+                    sent += length;
+                    sentBytes = sent;
+                    if (eof) {
+                        break;
+                    }
+                    long progress = sent;
+                    callbacks.execute(() -> listener.onProgress(progress, totalBytes));
+                }
+            }
+            client.getMetrics().onMessageSent(sent);
+            long total = sent;
+            callbacks.execute(() -> listener.onComplete(total));
+        } catch (Exception e) {
+            if (started && client.isOpen()) {
+                WsLogUtil.e("流式发送中断, 关闭连接, key = {}, {}", client.getWsKey(), e.getMessage());
+                client.close(CloseFrame.UNEXPECTED_CONDITION, "stream aborted");
+            }
+            long failedAt = sent;
+            callbacks.execute(() -> listener.onFailure(failedAt, e));
+        } finally {
+            // 中断时连接已经关闭，不会把消息写在不完整的分片之后
+            if (paused) {
+                queue.resume();
+            }
+            done = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                WsLogUtil.e("关闭数据流失败, {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 读满一个分片
+     *
+     * @return 是否已读到末尾
+     */
+    private boolean fill(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            checkState();
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 等待创建前进入发送队列的消息交给Java-WebSocket，这些消息排在本消息之前
+     */
+    private void awaitQueued() {
+        if (queue == null) {
+            return;
+        }
+        while (!queue.isHandedOff(queuedBefore)) {
+            checkState();
+            queue.drain();
+            LockSupport.parkNanos(PACING_NANOS);
+        }
+    }
+
+    /**
+     * 等待Java-WebSocket中积压的帧写出，期间提交的控制帧排在下一个分片之前
+     */
+    private void awaitCapacity() {
+        while (client.getEngineQueuedFrames() >= config.getMaxQueuedFragments()) {
+            checkState();
+            LockSupport.parkNanos(PACING_NANOS);
+        }
+        checkState();
+    }
+
+    private void checkState() {
+        if (cancelled) {
+            throw new CancellationException("Stream cancelled");
+        }
+        if (!client.isOpen()) {
+            throw new WebsocketNotConnectedException();
+        }
+    }
+}
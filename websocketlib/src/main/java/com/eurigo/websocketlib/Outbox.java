@@ -0,0 +1,741 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.WebSocket;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:50
+ * desc   : 单个wsKey的离线发送队列，未连接时发送的消息追加到内存映射的段文件中，
+ * onOpen后按顺序、按限速补发，补发完成前新发送的消息同样排在队列之后，保证顺序。
+ * <p>
+ * 每条记录为：长度(4) + CRC32(4) + 类型(1) + 状态(1) + 内容，类型最后写入，进程被杀时不完整的记录在恢复时由CRC识别并截断。
+ * 补发的消息交给Java-WebSocket后仍保留在文件中，直到对应的帧从Java-WebSocket的outQueue中写出才标记为已发送，
+ * 连接断开时仍在outQueue中的消息在下次连接后重新补发，进程在两者之间退出时同样重新补发，对方可能收到重复的消息。
+ * 已写入socket但仍在系统发送缓冲区中的消息在断线时无法识别，需要对方确认时配合{@link SessionConfig}使用。
+ * 全部发送完的段文件立即删除，超过磁盘上限时丢弃最早的段
+ */
+public final class Outbox {
+
+    private static final int FILE_MAGIC = 0x57534F42;
+
+    private static final int FILE_VERSION = 1;
+
+    private static final int FILE_HEADER_SIZE = 8;
+
+    private static final int RECORD_HEADER_SIZE = 10;
+
+    private static final int OFFSET_CRC = 4;
+
+    private static final int OFFSET_TYPE = 8;
+
+    private static final int OFFSET_STATE = 9;
+
+    private static final byte TYPE_END = 0;
+
+    private static final byte TYPE_TEXT = 1;
+
+    private static final byte TYPE_BINARY = 2;
+
+    private static final byte STATE_PENDING = 0;
+
+    private static final byte STATE_CONSUMED = 1;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final long DRAIN_INTERVAL_MILLIS = 10;
+
+    /**
+     * 不限速时每次最多补发的消息数，之后让出线程
+     */
+    private static final int UNLIMITED_BATCH = 256;
+
+    /**
+     * 已交给Java-WebSocket但尚未写出的补发消息上限，超过时等待写出
+     */
+    private static final int MAX_HANDED_RECORDS = 64;
+
+    /**
+     * 已打开的队列，key为目录路径，同一wsKey重新创建WsClient时共用
+     */
+    private static final Map<String, Outbox> OPENED = new HashMap<>();
+
+    private final String wsKey;
+
+    private final File directory;
+
+    private final OutboxConfig config;
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+
+    /**
+     * 在锁内修改，volatile用于发送时不加锁的快速判断
+     */
+    private volatile int pendingMessages;
+
+    private long pendingBytes;
+
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    private boolean closed;
+
+    private volatile WsClient client;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * 只在drain中访问
+     */
+    private double tokens;
+
+    /**
+     * 已交给handedConnection但尚未写出的补发消息，按顺序排列，只在drain中访问
+     */
+    private final ArrayDeque<Record> handed = new ArrayDeque<>();
+
+    private WebSocket handedConnection;
+
+    private long lastRefillNanos;
+
+    private final Runnable drainTask = () -> {
+        drainScheduled.set(false);
+        drain();
+    };
+
+    private Outbox(String wsKey, File directory, OutboxConfig config) throws IOException {
+        this.wsKey = wsKey;
+        this.directory = directory;
+        this.config = config;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create directory " + directory);
+        }
+        recover();
+    }
+
+    /**
+     * @return 该wsKey的队列，已打开时返回同一实例，打开失败时为空
+     */
+    static Outbox open(String wsKey, OutboxConfig config) {
+        File directory = new File(config.getDirectory(), wsKey);
+        String path = directory.getAbsolutePath();
+        synchronized (OPENED) {
+            Outbox outbox = OPENED.get(path);
+            if (outbox == null) {
+                try {
+                    outbox = new Outbox(wsKey, directory, config);
+                } catch (IOException e) {
+                    WsLogUtil.e("打开离线发送队列失败, key = {}, {}", wsKey, e.getMessage());
+                    return null;
+                }
+                OPENED.put(path, outbox);
+                if (outbox.pendingMessages > 0) {
+                    WsLogUtil.i("离线发送队列恢复{}条消息, key = {}", outbox.pendingMessages, wsKey);
+                }
+            }
+            return outbox;
+        }
+    }
+
+    public String getWsKey() {
+        return wsKey;
+    }
+
+    public OutboxConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return 等待补发的消息数
+     */
+    public int getPendingMessages() {
+        return pendingMessages;
+    }
+
+    /**
+     * @return 等待补发的内容字节数，不含记录头
+     */
+    public synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * @return 因超过磁盘上限或单条过大而丢弃的消息数
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    /**
+     * 未连接或队列中仍有未补发的消息时，把消息追加到队列，取得缓冲区的所有权
+     *
+     * @param payload String、byte[]、ByteBuffer或ByteBuffer[]
+     * @return 是否已进入队列（或被丢弃并通知），false时由调用方直接发送
+     */
+    boolean offer(WsClient client, Object payload) {
+        if (client.isOpen() && pendingMessages == 0) {
+            return false;
+        }
+        byte type = payload instanceof String ? TYPE_TEXT : TYPE_BINARY;
+        byte[] bytes = toBytes(payload);
+        List<Object> dropped = new ArrayList<>(0);
+        synchronized (this) {
+            if (closed || (client.isOpen() && pendingMessages == 0)) {
+                return false;
+            }
+            boolean stored = false;
+            if (RECORD_HEADER_SIZE + bytes.length > config.getSegmentSize() - FILE_HEADER_SIZE) {
+                WsLogUtil.e("消息超过离线发送队列的段大小, 丢弃, key = {}, length = {}", wsKey, bytes.length);
+            } else {
+                try {
+                    append(type, bytes, dropped);
+                    stored = true;
+                } catch (IOException e) {
+                    WsLogUtil.e("写入离线发送队列失败, 丢弃, key = {}, {}", wsKey, e.getMessage());
+                }
+            }
+            if (!stored) {
+                // 由onSendDropped回调后回收
+                droppedMessages.incrementAndGet();
+                dropped.add(payload);
+                payload = null;
+            }
+        }
+        if (payload != null) {
+            client.recyclePayload(payload);
+        }
+        for (Object message : dropped) {
+            client.notifySendDropped(message);
+        }
+        if (client.isOpen()) {
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    /**
+     * 连接建立后开始补发
+     */
+    void onOpen(WsClient client) {
+        this.client = client;
+        if (pendingMessages > 0) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 写入磁盘并停止补发，未补发的消息保留在文件中，下次打开时恢复
+     */
+    void close() {
+        synchronized (OPENED) {
+            OPENED.remove(directory.getAbsolutePath());
+        }
+        synchronized (this) {
+            closed = true;
+            for (Segment segment : segments) {
+                segment.map.force();
+            }
+            segments.clear();
+        }
+        client = null;
+    }
+
+    /**
+     * 关闭所有已打开的队列
+     */
+    static void closeAll() {
+        List<Outbox> outboxes;
+        synchronized (OPENED) {
+            outboxes = new ArrayList<>(OPENED.values());
+        }
+        for (Outbox outbox : outboxes) {
+            outbox.close();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), drainTask
+                    , DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 按令牌桶限速补发，发送队列高于高水位或已交出的消息过多时稍后重试，连接断开时停止，
+     * 未写出的消息等待下次onOpen
+     */
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            scheduleDrain();
+            return;
+        }
+        try {
+            WsClient current = client;
+            if (current == null || !current.isOpen()) {
+                return;
+            }
+            WebSocket connection = current.getConnection();
+            if (connection != handedConnection) {
+                // 重连后从最早的未写出的消息重新补发
+                handed.clear();
+                handedConnection = connection;
+            }
+            reconcile(current);
+            int budget = refill();
+            for (int i = 0; i < budget; i++) {
+                if (!current.isWritable() || handed.size() >= MAX_HANDED_RECORDS) {
+                    break;
+                }
+                Record record;
+                synchronized (this) {
+                    record = closed ? null : next();
+                }
+                if (record == null) {
+                    break;
+                }
+                try {
+                    current.writeFromOutbox(record.payload);
+                } catch (RuntimeException e) {
+                    WsLogUtil.e("离线消息补发失败, key = {}, {}", wsKey, e.getMessage());
+                    if (current.isOpen()) {
+                        scheduleDrain();
+                    }
+                    return;
+                }
+                handed.addLast(record);
+                tokens--;
+            }
+            if (pendingMessages > 0) {
+                scheduleDrain();
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Java-WebSocket按顺序写出帧，outQueue中剩余的帧数少于已交出的消息数时，最早交出的消息已经写出。
+     * outQueue中的其他帧只会推迟标记
+     */
+    private void reconcile(WsClient current) {
+        int written = handed.size() - current.getEngineQueuedFrames();
+        if (written <= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            for (int i = 0; i < written; i++) {
+                commit(handed.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * 持有锁时调用
+     *
+     * @return 最后一条已交出的消息之后的未补发消息，不移除
+     */
+    private Record next() {
+        Record last = handed.peekLast();
+        if (last == null || last.segment.removed) {
+            // 已交出的消息所在的段因超过磁盘上限被丢弃
+            handed.clear();
+            return peek();
+        }
+        boolean found = false;
+        for (Segment segment : segments) {
+            int pos;
+            if (found) {
+                pos = segment.readPos;
+            } else if (segment == last.segment) {
+                found = true;
+                pos = last.offset + RECORD_HEADER_SIZE + last.length;
+            } else {
+                continue;
+            }
+            while (pos + RECORD_HEADER_SIZE <= segment.writePos) {
+                byte type = segment.map.get(pos + OFFSET_TYPE);
+                if (type == TYPE_END) {
+                    break;
+                }
+                int length = segment.map.getInt(pos);
+                if (segment.map.get(pos + OFFSET_STATE) == STATE_PENDING) {
+                    return new Record(segment, pos, length, decode(type, read(segment.map, pos, length)));
+                }
+                pos += RECORD_HEADER_SIZE + length;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 本次最多补发的消息数
+     */
+    private int refill() {
+        int rate = config.getDrainRatePerSecond();
+        if (rate == 0) {
+            return UNLIMITED_BATCH;
+        }
+        long now = System.nanoTime();
+        if (lastRefillNanos == 0) {
+            tokens = 1;
+        } else {
+            // 最多积累1秒的令牌
+            tokens = Math.min(rate, tokens + (now - lastRefillNanos) * rate / 1e9);
+        }
+        lastRefillNanos = now;
+        return (int) tokens;
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long[] ids = new long[files.length];
+        int count = 0;
+        for (File file : files) {
+            try {
+                ids[count] = Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length()));
+                count++;
+            } catch (NumberFormatException e) {
+                WsLogUtil.e("忽略无效的段文件：{}", file.getName());
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        for (long id : ids) {
+            nextSegmentId = id + 1;
+            Segment segment = recoverSegment(id, segmentFile(id));
+            if (segment == null) {
+                continue;
+            }
+            segments.addLast(segment);
+            pendingMessages += segment.pending;
+            pendingBytes += segment.pendingBytes;
+        }
+    }
+
+    /**
+     * @return 有未补发消息的段，没有时删除文件并返回空
+     */
+    private Segment recoverSegment(long id, File file) throws IOException {
+        MappedByteBuffer map;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < FILE_HEADER_SIZE) {
+                delete(file);
+                return null;
+            }
+            map = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        }
+        if (map.getInt(0) != FILE_MAGIC || map.getInt(4) != FILE_VERSION) {
+            WsLogUtil.e("忽略无效的段文件：{}", file.getName());
+            delete(file);
+            return null;
+        }
+        Segment segment = new Segment(file, map);
+        int capacity = map.capacity();
+        int pos = FILE_HEADER_SIZE;
+        int firstPending = -1;
+        CRC32 crc = new CRC32();
+        while (pos + RECORD_HEADER_SIZE <= capacity) {
+            byte type = map.get(pos + OFFSET_TYPE);
+            if (type == TYPE_END) {
+                break;
+            }
+            int length = map.getInt(pos);
+            boolean valid = (type == TYPE_TEXT || type == TYPE_BINARY)
+                    && length >= 0 && length <= capacity - pos - RECORD_HEADER_SIZE;
+            if (valid) {
+                byte[] payload = read(map, pos, length);
+                crc.reset();
+                crc.update(type);
+                crc.update(payload, 0, payload.length);
+                valid = (int) crc.getValue() == map.getInt(pos + OFFSET_CRC);
+            }
+            if (!valid) {
+                WsLogUtil.e("离线发送队列记录损坏, 截断, file = {}, offset = {}", file.getName(), pos);
+                map.put(pos + OFFSET_TYPE, TYPE_END);
+                break;
+            }
+            if (map.get(pos + OFFSET_STATE) == STATE_PENDING) {
+                if (firstPending < 0) {
+                    firstPending = pos;
+                }
+                segment.pending++;
+                segment.pendingBytes += length;
+            }
+            pos += RECORD_HEADER_SIZE + length;
+        }
+        if (segment.pending == 0) {
+            delete(file);
+            return null;
+        }
+        segment.writePos = pos;
+        segment.readPos = firstPending;
+        return segment;
+    }
+
+    /**
+     * 持有锁时调用
+     *
+     * @param dropped 超过磁盘上限时被丢弃的消息
+     */
+    private void append(byte type, byte[] payload, List<Object> dropped) throws IOException {
+        int size = RECORD_HEADER_SIZE + payload.length;
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePos + size > tail.map.capacity()) {
+            tail = roll(dropped);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload, 0, payload.length);
+        MappedByteBuffer map = tail.map;
+        int pos = tail.writePos;
+        map.putInt(pos, payload.length);
+        map.putInt(pos + OFFSET_CRC, (int) crc.getValue());
+        map.put(pos + OFFSET_STATE, STATE_PENDING);
+        ByteBuffer target = map.duplicate();
+        target.position(pos + RECORD_HEADER_SIZE);
+        target.put(payload);
+        // 类型最后写入，之前的内容不完整时记录不可见
+        map.put(pos + OFFSET_TYPE, type);
+        if (tail.pending == 0) {
+            tail.readPos = pos;
+        }
+        tail.writePos = pos + size;
+        tail.pending++;
+        tail.pendingBytes += payload.length;
+        pendingMessages++;
+        pendingBytes += payload.length;
+    }
+
+    /**
+     * 创建新的段，超过磁盘上限时先丢弃最早的段
+     */
+    private Segment roll(List<Object> dropped) throws IOException {
+        while (!segments.isEmpty()
+                && (long) (segments.size() + 1) * config.getSegmentSize() > config.getMaxBytes()) {
+            dropOldest(dropped);
+        }
+        long id = nextSegmentId++;
+        File file = segmentFile(id);
+        MappedByteBuffer map;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(config.getSegmentSize());
+            map = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSize());
+        }
+        map.putInt(0, FILE_MAGIC);
+        map.putInt(4, FILE_VERSION);
+        Segment segment = new Segment(file, map);
+        segment.writePos = FILE_HEADER_SIZE;
+        segment.readPos = FILE_HEADER_SIZE;
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void dropOldest(List<Object> dropped) {
+        Segment head = segments.pollFirst();
+        int pos = head.readPos;
+        while (pos + RECORD_HEADER_SIZE <= head.writePos) {
+            byte type = head.map.get(pos + OFFSET_TYPE);
+            if (type == TYPE_END) {
+                break;
+            }
+            int length = head.map.getInt(pos);
+            if (head.map.get(pos + OFFSET_STATE) == STATE_PENDING) {
+                dropped.add(decode(type, read(head.map, pos, length)));
+            }
+            pos += RECORD_HEADER_SIZE + length;
+        }
+        WsLogUtil.e("离线发送队列超过磁盘上限, 丢弃{}条消息, key = {}", head.pending, wsKey);
+        droppedMessages.addAndGet(head.pending);
+        pendingMessages -= head.pending;
+        pendingBytes -= head.pendingBytes;
+        remove(head);
+    }
+
+    /**
+     * 持有锁时调用
+     *
+     * @return 最早的未补发消息，不移除
+     */
+    private Record peek() {
+        Segment head;
+        while ((head = segments.peekFirst()) != null) {
+            int pos = head.readPos;
+            while (pos + RECORD_HEADER_SIZE <= head.writePos) {
+                byte type = head.map.get(pos + OFFSET_TYPE);
+                if (type == TYPE_END) {
+                    break;
+                }
+                int length = head.map.getInt(pos);
+                if (head.map.get(pos + OFFSET_STATE) == STATE_PENDING) {
+                    head.readPos = pos;
+                    return new Record(head, pos, length, decode(type, read(head.map, pos, length)));
+                }
+                pos += RECORD_HEADER_SIZE + length;
+            }
+            segments.pollFirst();
+            remove(head);
+        }
+        return null;
+    }
+
+    /**
+     * 持有锁时调用，标记为已发送，段中的消息全部发送后删除段文件
+     */
+    private void commit(Record record) {
+        Segment segment = record.segment;
+        if (segment.removed) {
+            // 补发期间该段因超过磁盘上限被丢弃
+            return;
+        }
+        segment.map.put(record.offset + OFFSET_STATE, STATE_CONSUMED);
+        segment.readPos = record.offset + RECORD_HEADER_SIZE + record.length;
+        segment.pending--;
+        segment.pendingBytes -= record.length;
+        pendingMessages--;
+        pendingBytes -= record.length;
+        if (pendingMessages == 0) {
+            // 全部发送完，删除所有段，下次离线时从新文件开始
+            while (!segments.isEmpty()) {
+                remove(segments.pollFirst());
+            }
+        } else if (segment.pending == 0 && segment != segments.peekLast()) {
+            segments.remove(segment);
+            remove(segment);
+        }
+    }
+
+    private void remove(Segment segment) {
+        segment.removed = true;
+        delete(segment.file);
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, String.format(Locale.US, "%020d", id) + SEGMENT_SUFFIX);
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            WsLogUtil.e("删除段文件失败：{}", file.getName());
+        }
+    }
+
+    private static byte[] read(MappedByteBuffer map, int pos, int length) {
+        byte[] payload = new byte[length];
+        ByteBuffer source = map.duplicate();
+        source.position(pos + RECORD_HEADER_SIZE);
+        source.get(payload);
+        return payload;
+    }
+
+    private static Object decode(byte type, byte[] payload) {
+        return type == TYPE_TEXT ? new String(payload, StandardCharsets.UTF_8) : payload;
+    }
+
+    private static byte[] toBytes(Object payload) {
+        if (payload instanceof String) {
+            return ((String) payload).getBytes(StandardCharsets.UTF_8);
+        }
+        if (payload instanceof byte[]) {
+            return (byte[]) payload;
+        }
+        if (payload instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) payload).duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+        // 分片发送的多个缓冲区合并为一条记录
+        ByteBuffer[] buffers = (ByteBuffer[]) payload;
+        int length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            int remaining = buffer.remaining();
+            buffer.duplicate().get(bytes, offset, remaining);
+            offset += remaining;
+        }
+        return bytes;
+    }
+
+    private static final class Segment {
+
+        private final File file;
+
+        private final MappedByteBuffer map;
+
+        /**
+         * 下一条记录的写入位置
+         */
+        private int writePos;
+
+        /**
+         * 最早的未补发记录的位置
+         */
+        private int readPos;
+
+        private int pending;
+
+        private long pendingBytes;
+
+        private boolean removed;
+
+        Segment(File file, MappedByteBuffer map) {
+            this.file = file;
+            this.map = map;
+        }
+    }
+
+    private static final class Record {
+
+        private final Segment segment;
+
+        private final int offset;
+
+        private final int length;
+
+        /**
+         * String或byte[]
+         */
+        private final Object payload;
+
+        Record(Segment segment, int offset, int length, Object payload) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.payload = payload;
+        }
+    }
+}
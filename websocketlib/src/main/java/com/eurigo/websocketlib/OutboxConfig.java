@@ -0,0 +1,102 @@
+package com.eurigo.websocketlib;
+
+import java.io.File;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:45
+ * desc   : 离线发送队列配置，通过{@link WsClient.Builder#setOutboxConfig(OutboxConfig)}开启，
+ * 每个wsKey使用directory下的独立子目录
+ */
+public final class OutboxConfig {
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final long maxBytes;
+
+    private final int drainRatePerSecond;
+
+    private OutboxConfig(Builder builder) {
+        if (builder.directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        if (builder.segmentSize < 4096) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096");
+        }
+        if (builder.maxBytes < 2L * builder.segmentSize) {
+            throw new IllegalArgumentException("maxBytes must be at least 2 * segmentSize");
+        }
+        if (builder.drainRatePerSecond < 0) {
+            throw new IllegalArgumentException("drainRatePerSecond must not be negative");
+        }
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.maxBytes = builder.maxBytes;
+        this.drainRatePerSecond = builder.drainRatePerSecond;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getDrainRatePerSecond() {
+        return drainRatePerSecond;
+    }
+
+    public static final class Builder {
+
+        private File directory;
+
+        private int segmentSize = 1024 * 1024;
+
+        private long maxBytes = 16L * 1024 * 1024;
+
+        private int drainRatePerSecond = 200;
+
+        /**
+         * 存放队列文件的目录，例如context.getFilesDir()下的子目录，必须设置
+         */
+        public Builder setDirectory(File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * 单个段文件的大小，单位字节，默认1M，单条消息不能超过该大小
+         */
+        public Builder setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * 占用磁盘的上限，单位字节，默认16M，超过时丢弃最早的段并通过onSendDropped通知
+         */
+        public Builder setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * 连接后每秒最多补发的消息数，默认200，0表示不限制
+         */
+        public Builder setDrainRatePerSecond(int drainRatePerSecond) {
+            this.drainRatePerSecond = drainRatePerSecond;
+            return this;
+        }
+
+        public OutboxConfig build() {
+            return new OutboxConfig(this);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.HashedWheelTimer;
+import com.eurigo.websocketlib.util.ThreadUtils;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:55
+ * desc   : 一次{@link WsManager#startAll(int, long, IStartListener)}，同时最多parallelism个WebSocket在握手，
+ * 由连接的onOpen、onClose和时间轮上的截止时间得出结果，任何线程都不会等待握手
+ */
+final class ParallelConnector {
+
+    private final int total;
+
+    private final int parallelism;
+
+    private final long timeoutMillis;
+
+    private final IStartListener listener;
+
+    /**
+     * 以下字段都在锁内访问
+     */
+    private final ArrayDeque<WsClient> waiting = new ArrayDeque<>();
+
+    private final Map<String, Attempt> connecting = new HashMap<>();
+
+    private final Map<String, ConnectResult> results = new LinkedHashMap<>();
+
+    /**
+     * 已得出但尚未回调的结果，在callbackLock内按得出的顺序回调，保证onComplete最后回调
+     */
+    private final Queue<ConnectResult> undelivered = new ConcurrentLinkedQueue<>();
+
+    private final Object callbackLock = new Object();
+
+    private int delivered;
+
+    ParallelConnector(Collection<WsClient> clients, int parallelism, long timeoutMillis, IStartListener listener) {
+        this.parallelism = parallelism;
+        this.timeoutMillis = timeoutMillis;
+        this.listener = listener;
+        waiting.addAll(clients);
+        this.total = waiting.size();
+    }
+
+    void start() {
+        synchronized (this) {
+            Iterator<WsClient> iterator = waiting.iterator();
+            while (iterator.hasNext()) {
+                WsClient client = iterator.next();
+                if (client.isOpen()) {
+                    iterator.remove();
+                    complete(client.getWsKey(), ConnectResult.Status.ALREADY_OPEN, null, 0);
+                }
+            }
+        }
+        launchNext();
+        deliver();
+    }
+
+    /**
+     * 由{@link WsManager#onClientOpen(WsClient)}调用
+     */
+    void onOpen(WsClient client) {
+        finish(client, ConnectResult.Status.CONNECTED, null);
+    }
+
+    /**
+     * 由{@link WsManager#onClientClose(WsClient, DisConnectReason)}调用
+     */
+    void onClose(WsClient client, DisConnectReason reason) {
+        Attempt attempt;
+        synchronized (this) {
+            attempt = connecting.get(client.getWsKey());
+        }
+        // 重连正在关闭的WebSocket时，reset会先回调旧连接的onClose
+        if (attempt != null && client.getConnectGeneration() > attempt.staleGeneration) {
+            finish(client, ConnectResult.Status.FAILED, reason);
+        }
+    }
+
+    private void launchNext() {
+        while (true) {
+            WsClient client;
+            Attempt attempt;
+            synchronized (this) {
+                if (connecting.size() >= parallelism || waiting.isEmpty()) {
+                    return;
+                }
+                client = waiting.poll();
+                attempt = new Attempt(client, client.isClosing() || client.isClosed()
+                        ? client.getConnectGeneration() : -1);
+                connecting.put(client.getWsKey(), attempt);
+                attempt.timeout = ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool()
+                        , () -> finish(attempt, ConnectResult.Status.TIMEOUT, null), timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            // 重连已关闭的WebSocket需要等待旧的读写线程结束，不在调用方线程中执行
+            ThreadUtils.getIoPool().execute(() -> {
+                if (!WsManager.getInstance().tryConnect(client)) {
+                    finish(attempt, ConnectResult.Status.FAILED, null);
+                }
+            });
+        }
+    }
+
+    private void finish(WsClient client, ConnectResult.Status status, DisConnectReason reason) {
+        Attempt attempt;
+        synchronized (this) {
+            attempt = connecting.get(client.getWsKey());
+        }
+        if (attempt != null && attempt.client == client) {
+            finish(attempt, status, reason);
+        }
+    }
+
+    private void finish(Attempt attempt, ConnectResult.Status status, DisConnectReason reason) {
+        String wsKey = attempt.client.getWsKey();
+        synchronized (this) {
+            // 已由其他事件得出结果
+            if (connecting.get(wsKey) != attempt) {
+                return;
+            }
+            connecting.remove(wsKey);
+            if (status != ConnectResult.Status.TIMEOUT) {
+                attempt.timeout.cancel();
+            }
+            complete(wsKey, status, reason
+                    , TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attempt.startNanos));
+        }
+        launchNext();
+        deliver();
+    }
+
+    /**
+     * 持有锁时调用
+     */
+    private void complete(String wsKey, ConnectResult.Status status, DisConnectReason reason, long elapsedMillis) {
+        ConnectResult result = new ConnectResult(wsKey, status, reason, elapsedMillis);
+        results.put(wsKey, result);
+        undelivered.add(result);
+    }
+
+    private void deliver() {
+        synchronized (callbackLock) {
+            ConnectResult result;
+            while ((result = undelivered.poll()) != null) {
+                delivered++;
+                listener.onResult(result);
+            }
+            if (delivered != total) {
+                return;
+            }
+            // 只回调一次
+            delivered++;
+        }
+        WsManager.getInstance().removeConnector(this);
+        Map<String, ConnectResult> snapshot;
+        synchronized (this) {
+            snapshot = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+        }
+        listener.onComplete(snapshot);
+    }
+
+    private static final class Attempt {
+
+        private final WsClient client;
+
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * 不超过该值时的onClose属于发起本次连接之前的旧连接，-1表示没有旧连接
+         */
+        private final int staleGeneration;
+
+        private HashedWheelTimer.Timeout timeout;
+
+        Attempt(WsClient client, int staleGeneration) {
+            this.client = client;
+            this.staleGeneration = staleGeneration;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ByteBufferPool;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 把编码结果写入池化的固定容量缓冲区，写满一个再取下一个，不做扩容拷贝。
+ * 写完后的缓冲区作为一条分片消息发送，发送后由BufferRecycler归还到池中
+ */
+final class PooledOutputStream extends OutputStream {
+
+    /**
+     * 未设置ByteBufferPool时每个缓冲区的容量
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final ByteBufferPool pool;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>(1);
+
+    private ByteBuffer current;
+
+    /**
+     * @param pool 为空时新建堆内缓冲区
+     */
+    PooledOutputStream(ByteBufferPool pool) {
+        this.pool = pool;
+    }
+
+    private ByteBuffer writable() {
+        if (current == null || !current.hasRemaining()) {
+            current = pool == null ? ByteBuffer.allocate(DEFAULT_CHUNK_SIZE) : pool.acquire();
+            chunks.add(current);
+        }
+        return current;
+    }
+
+    @Override
+    public void write(int b) {
+        writable().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            ByteBuffer buffer = writable();
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * @return 可读的缓冲区，所有权转移给调用方，没有写入数据时返回一个空缓冲区
+     */
+    ByteBuffer[] toBuffers() {
+        if (chunks.isEmpty()) {
+            return new ByteBuffer[]{ByteBuffer.allocate(0)};
+        }
+        ByteBuffer[] buffers = chunks.toArray(new ByteBuffer[0]);
+        for (ByteBuffer buffer : buffers) {
+            buffer.flip();
+        }
+        chunks.clear();
+        current = null;
+        return buffers;
+    }
+
+    /**
+     * 编码失败时归还已取出的缓冲区
+     */
+    void release() {
+        if (pool != null) {
+            for (ByteBuffer buffer : chunks) {
+                pool.release(buffer);
+            }
+        }
+        chunks.clear();
+        current = null;
+    }
+}
@@ -1,35 +1,158 @@
 package com.eurigo.websocketlib;
 
+import com.eurigo.websocketlib.util.HashedWheelTimer;
 import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * @author eurigo
  * Created on 2025/3/7 08:19
- * desc   : WebSocket守护任务
+ * desc   : WebSocket守护任务，只跟踪已断开的WebSocket：断开时按保护间隔在时间轮上登记一个截止时间，
+ * 连接成功时取消，到期后重置重连次数并发起新一轮重连，仍未连接则登记下一个截止时间。
+ * <p>
+ * 没有断开的WebSocket时不会唤醒，网络回调报告没有可用网络时到期的WebSocket等待网络恢复回调，
+ * 未注册网络回调（例如没有网络状态权限）时仍按保护间隔重连，
+ * 网络恢复时所有登记的WebSocket立即到期。重连只发起连接，不在线程池中等待握手
  */
-public class ReconnectGuardianTask extends ThreadUtils.SimpleTask<Void> {
+public final class ReconnectGuardianTask {
 
-    @Override
-    public Void doInBackground() {
-        WsManager.getInstance().start();
-        return null;
+    private final long intervalMillis;
+
+    /**
+     * 已断开的WebSocket，key为wsKey
+     */
+    private final Map<String, Deadline> deadlines = new HashMap<>();
+
+    private boolean stopped;
+
+    ReconnectGuardianTask(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 启动时未连接的WebSocket立即到期
+     */
+    synchronized void start(Collection<WsClient> clients) {
+        for (WsClient client : clients) {
+            if (!client.isOpen()) {
+                schedule(client.getWsKey(), 0);
+            }
+        }
+    }
+
+    /**
+     * 停止守护，取消所有定时
+     */
+    synchronized void stop() {
+        stopped = true;
+        for (Deadline deadline : deadlines.values()) {
+            deadline.cancel();
+        }
+        deadlines.clear();
+    }
+
+    /**
+     * 连接断开，已登记的截止时间不会推迟
+     */
+    synchronized void onDown(String wsKey) {
+        if (!deadlines.containsKey(wsKey)) {
+            schedule(wsKey, intervalMillis);
+        }
+    }
+
+    /**
+     * 连接成功，不再守护
+     */
+    synchronized void onUp(String wsKey) {
+        Deadline deadline = deadlines.remove(wsKey);
+        if (deadline != null) {
+            deadline.cancel();
+        }
     }
 
-    @Override
-    public void onSuccess(Void result) {
+    /**
+     * 网络恢复，所有登记的WebSocket立即到期
+     */
+    synchronized void onNetworkAvailable() {
+        for (String wsKey : new ArrayList<>(deadlines.keySet())) {
+            deadlines.get(wsKey).cancel();
+            schedule(wsKey, 0);
+        }
+    }
 
+    /**
+     * @return 正在守护的WebSocket
+     */
+    public synchronized List<String> getDownClients() {
+        return new ArrayList<>(deadlines.keySet());
+    }
+
+    /**
+     * 持有锁时调用
+     */
+    private void schedule(String wsKey, long delayMillis) {
+        if (stopped) {
+            return;
+        }
+        Deadline deadline = new Deadline();
+        deadlines.put(wsKey, deadline);
+        deadline.timeout = ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool()
+                , () -> onDeadline(wsKey, deadline), delayMillis, TimeUnit.MILLISECONDS);
     }
 
-    public void execute(){
-        long reconnectInterval = WsManager.getInstance().getGuardianTaskInterval();
-        if (reconnectInterval <= 0) {
-            throw new IllegalArgumentException("reconnectInterval must be greater than 0");
+    /**
+     * 在IO线程池中执行
+     */
+    private void onDeadline(String wsKey, Deadline deadline) {
+        WsClient client = WsManager.getInstance().getWsClient(wsKey);
+        synchronized (this) {
+            // 已取消或被新的截止时间替换
+            if (stopped || deadlines.get(wsKey) != deadline) {
+                return;
+            }
+            if (client == null || client.isOpen()) {
+                deadlines.remove(wsKey);
+                return;
+            }
+            if (WsManager.getInstance().isNetworkKnownUnavailable()) {
+                // 保留登记，等待网络恢复回调，期间不再唤醒
+                deadline.timeout = null;
+                return;
+            }
+            schedule(wsKey, intervalMillis);
         }
-        if (reconnectInterval < WsManager.getInstance().getMaxReconnectCount() * WsManager.getInstance().getMaxReconnectInterval() * 2) {
-            throw new IllegalArgumentException("reconnectInterval must be greater than maxReconnectCount * maxReconnectInterval * 2");
+        if (client.getReconnectStateMachine().isRunning()) {
+            // 本轮重连仍在进行
+            return;
+        }
+        WsLogUtil.e("守护任务发起重连, key = {}", wsKey);
+        client.resetReconnect();
+        // 无法判断网络状态时重连任务不会执行，直接连接
+        if (client.getReconnectCount() > 0 && WsManager.getInstance().isNetworkAvailable()) {
+            client.runReconnectTask();
+        } else {
+            WsManager.getInstance().safeConnect(client);
+        }
+    }
+
+    private static final class Deadline {
+
+        /**
+         * 等待网络恢复时为空
+         */
+        private HashedWheelTimer.Timeout timeout;
+
+        void cancel() {
+            if (timeout != null) {
+                timeout.cancel();
+            }
         }
-        ThreadUtils.executeByCachedAtFixRate(this, WsManager.getInstance().getGuardianTaskInterval(), TimeUnit.SECONDS);
     }
 }
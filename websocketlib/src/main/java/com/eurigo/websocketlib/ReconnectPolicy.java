@@ -0,0 +1,90 @@
+package com.eurigo.websocketlib;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 11:20
+ * desc   : 重连间隔策略，每次重连单独计算延迟并调度
+ */
+public interface ReconnectPolicy {
+
+    /**
+     * 计算下一次重连的延迟
+     *
+     * @param attempt             即将执行的重连序号，从1开始
+     * @param previousDelayMillis 上一次重连的延迟，本轮首次重连为0
+     * @return 延迟，单位毫秒
+     */
+    long nextDelayMillis(int attempt, long previousDelayMillis);
+
+    /**
+     * 固定间隔
+     *
+     * @param delayMillis 间隔，单位毫秒
+     */
+    static ReconnectPolicy fixed(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("delayMillis must not be negative");
+        }
+        return (attempt, previousDelayMillis) -> delayMillis;
+    }
+
+    /**
+     * 指数退避，第n次重连的延迟为 baseMillis * 2^(n-1)，不超过maxMillis
+     *
+     * @param baseMillis 首次重连的延迟，单位毫秒
+     * @param maxMillis  最大延迟，单位毫秒
+     */
+    static ReconnectPolicy exponential(long baseMillis, long maxMillis) {
+        if (baseMillis <= 0 || maxMillis < baseMillis) {
+            throw new IllegalArgumentException("baseMillis must be greater than 0 and not greater than maxMillis");
+        }
+        return (attempt, previousDelayMillis) -> {
+            int shift = Math.min(Math.max(attempt - 1, 0), 62);
+            long delay = baseMillis << shift;
+            // 溢出或超过上限时取上限
+            if (delay <= 0 || (delay >> shift) != baseMillis || delay > maxMillis) {
+                return maxMillis;
+            }
+            return delay;
+        };
+    }
+
+    /**
+     * 去相关抖动（decorrelated jitter），延迟在 [baseMillis, 上一次延迟 * 3] 内随机，不超过capMillis。
+     * 大量设备同时断线时，重连请求会在时间上分散开，避免同步冲击服务端
+     *
+     * @param baseMillis 最小延迟，单位毫秒
+     * @param capMillis  最大延迟，单位毫秒
+     */
+    static ReconnectPolicy decorrelatedJitter(long baseMillis, long capMillis) {
+        if (baseMillis <= 0 || capMillis < baseMillis) {
+            throw new IllegalArgumentException("baseMillis must be greater than 0 and not greater than capMillis");
+        }
+        return (attempt, previousDelayMillis) -> {
+            long upper = Math.max(baseMillis, previousDelayMillis) * 3;
+            if (upper <= baseMillis) {
+                return Math.min(capMillis, baseMillis);
+            }
+            return Math.min(capMillis, ThreadLocalRandom.current().nextLong(baseMillis, upper));
+        };
+    }
+
+    /**
+     * 限制任意策略的最大延迟
+     *
+     * @param policy    原策略
+     * @param maxMillis 最大延迟，单位毫秒
+     */
+    static ReconnectPolicy capped(ReconnectPolicy policy, long maxMillis) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        if (maxMillis < 0) {
+            throw new IllegalArgumentException("maxMillis must not be negative");
+        }
+        return (attempt, previousDelayMillis) ->
+                Math.max(0, Math.min(maxMillis, policy.nextDelayMillis(attempt, previousDelayMillis)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 10:02
+ * desc   : 单个WebSocket的重连状态
+ */
+public enum ReconnectState {
+
+    /**
+     * 空闲，未连接且没有重连任务
+     */
+    IDLE,
+
+    /**
+     * 重连任务已调度，等待下一次重连
+     */
+    SCHEDULED,
+
+    /**
+     * 正在执行重连，等待握手结果
+     */
+    CONNECTING,
+
+    /**
+     * 已连接
+     */
+    OPEN,
+
+    /**
+     * 已达到最大重连次数，放弃重连，需调用reset后才会再次重连
+     */
+    GAVE_UP
+}
@@ -0,0 +1,134 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 10:05
+ * desc   : 单个WebSocket的重连状态机，状态切换全部通过CAS完成，
+ * 每个wsKey独立重连，互不阻塞。重连时复用同一个WsClient，状态机随实例保留
+ */
+final class ReconnectStateMachine {
+
+    private final AtomicReference<ReconnectState> state = new AtomicReference<>(ReconnectState.IDLE);
+
+    /**
+     * 本轮已执行的重连次数，连接成功或reset后清零
+     */
+    private final AtomicInteger attempt = new AtomicInteger(0);
+
+    private volatile ReconnectTask task;
+
+    /**
+     * 上一次重连的延迟，提供给{@link ReconnectPolicy}
+     */
+    private volatile long lastDelayMillis;
+
+    ReconnectState getState() {
+        return state.get();
+    }
+
+    int getAttempt() {
+        return attempt.get();
+    }
+
+    ReconnectTask getTask() {
+        return task;
+    }
+
+    boolean isRunning() {
+        ReconnectState current = state.get();
+        return current == ReconnectState.SCHEDULED || current == ReconnectState.CONNECTING;
+    }
+
+    /**
+     * IDLE -> SCHEDULED，开启新一轮重连，成功后由调用方负责调度重连任务
+     */
+    boolean trySchedule() {
+        if (!state.compareAndSet(ReconnectState.IDLE, ReconnectState.SCHEDULED)) {
+            return false;
+        }
+        lastDelayMillis = 0;
+        return true;
+    }
+
+    /**
+     * 按策略计算下一次重连的延迟
+     */
+    long nextDelayMillis(ReconnectPolicy policy) {
+        long delay = Math.max(0, policy.nextDelayMillis(attempt.get() + 1, lastDelayMillis));
+        lastDelayMillis = delay;
+        return delay;
+    }
+
+    /**
+     * 替换当前的重连任务，旧任务会被取消
+     *
+     * @param caller 正在执行并调度新任务的旧任务，不取消，避免中断自身的线程
+     */
+    void setTask(ReconnectTask newTask, ReconnectTask caller) {
+        ReconnectTask oldTask = task;
+        task = newTask;
+        if (oldTask != caller) {
+            ThreadUtils.cancel(oldTask);
+        }
+    }
+
+    /**
+     * SCHEDULED -> CONNECTING，返回本次重连的序号，失败返回-1
+     */
+    int tryConnect() {
+        if (!state.compareAndSet(ReconnectState.SCHEDULED, ReconnectState.CONNECTING)) {
+            return -1;
+        }
+        return attempt.incrementAndGet();
+    }
+
+    /**
+     * 重连失败，CONNECTING -> SCHEDULED，达到最大次数时 CONNECTING -> GAVE_UP
+     *
+     * @return 是否需要调度下一次重连
+     */
+    boolean retryAfterFailure(int maxAttempts) {
+        if (attempt.get() >= maxAttempts) {
+            if (state.compareAndSet(ReconnectState.CONNECTING, ReconnectState.GAVE_UP)) {
+                ThreadUtils.cancel(task);
+            }
+            return false;
+        }
+        return state.compareAndSet(ReconnectState.CONNECTING, ReconnectState.SCHEDULED);
+    }
+
+    void giveUp() {
+        state.compareAndSet(ReconnectState.IDLE, ReconnectState.GAVE_UP);
+    }
+
+    void onOpen() {
+        state.set(ReconnectState.OPEN);
+        attempt.set(0);
+        lastDelayMillis = 0;
+        ThreadUtils.cancel(task);
+    }
+
+    /**
+     * 已建立的连接断开，OPEN -> IDLE
+     *
+     * @return 是否需要开启新一轮重连
+     */
+    boolean onClose() {
+        state.compareAndSet(ReconnectState.OPEN, ReconnectState.IDLE);
+        return state.get() == ReconnectState.IDLE;
+    }
+
+    /**
+     * 清零重连次数，已放弃的状态回到IDLE
+     */
+    void reset() {
+        attempt.set(0);
+        lastDelayMillis = 0;
+        state.compareAndSet(ReconnectState.GAVE_UP, ReconnectState.IDLE);
+    }
+}
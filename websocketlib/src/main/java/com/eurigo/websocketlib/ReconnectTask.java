@@ -8,64 +8,54 @@ import java.util.concurrent.TimeUnit;
 /**
  * @author Eurigo
  * Created on 2022/3/30 15:07
- * desc   :
+ * desc   : 单次重连任务，状态由{@link ReconnectStateMachine}维护，
+ * 失败后由{@link WsClient}按{@link ReconnectPolicy}调度下一次
  */
 public class ReconnectTask extends ThreadUtils.SimpleTask<Void> {
 
     private final String wsKey;
-    private int reconnectCount;
-    private final long reconnectInterval;
-    private int count = 1;
 
     public ReconnectTask(String wsKey) {
         this.wsKey = wsKey;
-        // 重置全局重连次数
-        reconnectCount = WsManager.getInstance().getWsClient(wsKey).getReconnectCount();
-        reconnectInterval = WsManager.getInstance().getWsClient(wsKey).getReconnectInterval();
     }
 
     @Override
     public Void doInBackground() {
-        if (WsManager.getInstance().getWsClient(wsKey).isOpen()) {
-            ThreadUtils.cancel(this);
+        WsClient client = WsManager.getInstance().getWsClient(wsKey);
+        if (client == null || client.isOpen()) {
             return null;
         }
-        WsLogUtil.e("执行第" + count + "次重连");
-        WsManager.getInstance().setTaskReconnectCount(count);
-        WsManager.getInstance().safeConnect(WsManager.getInstance().getWsClient(wsKey));
-        // 每次执行任务，重连次数递减，直到为0不再发起重连
-        reconnectCount--;
-        count++;
+        ReconnectStateMachine stateMachine = client.getReconnectStateMachine();
+        int attempt = stateMachine.tryConnect();
+        if (attempt < 0) {
+            return null;
+        }
+        client.getMetrics().onReconnectAttempt();
+        WsLogUtil.e("执行第{}次重连, key = {}", attempt, wsKey);
+        if (!WsManager.getInstance().tryConnect(client)
+                && stateMachine.retryAfterFailure(client.getReconnectCount())) {
+            // 没有发起连接也就不会触发onClose，直接调度下一次
+            client.scheduleReconnect(this);
+        }
         return null;
     }
 
     @Override
     public void onSuccess(Void result) {
-        if (reconnectCount == 0) {
-            ThreadUtils.cancel(this);
-        }
+
     }
 
     @Override
     public void onCancel() {
-        WsLogUtil.e("重连任务执行完毕");
-        WsManager.getInstance().setReconnectTaskRun(false);
+        WsLogUtil.d("重连任务已取消, key = {}", wsKey);
     }
 
-    public void execute() {
-        if (WsManager.getInstance().isReconnectTaskRun()) {
-            WsLogUtil.e("重连任务已执行");
-            return;
-        }
-        if (!WsManager.getInstance().isNetworkAvailable()) {
-            WsLogUtil.e("网络不可用, 不执行重连");
-            return;
-        }
-        if (WsManager.getInstance().getWsClient(wsKey).isOpen()) {
-            WsLogUtil.e("Socket已连接");
-            return;
-        }
-        WsManager.getInstance().setReconnectTaskRun(true);
-        ThreadUtils.executeByIoAtFixRate(this, reconnectInterval, TimeUnit.SECONDS);
+    /**
+     * 延迟执行本次重连
+     *
+     * @param delayMillis 延迟，单位毫秒
+     */
+    public void execute(long delayMillis) {
+        ThreadUtils.executeByIoWithDelay(this, delayMillis, TimeUnit.MILLISECONDS);
     }
 }
@@ -0,0 +1,28 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 22:30
+ * desc   : RPC调用结果，每次调用只回调一次。
+ * 响应、超时和断开都通过连接的{@link CallbackExecutor}回调，与onMessage等回调按顺序执行，
+ * 使用{@link CallbackExecutor#direct()}时响应和断开在读线程中回调，超时在IO线程池中回调
+ */
+public interface RpcCallback {
+
+    /**
+     * 收到响应
+     *
+     * @param response 经{@link RpcCodec#decodeResponse(String)}解出的响应内容
+     */
+    void onResponse(String response);
+
+    /**
+     * 调用失败
+     *
+     * @param e 超时为{@link java.util.concurrent.TimeoutException}，
+     *          并发调用过多为{@link RpcLimitExceededException}，
+     *          未连接或等待响应时断开为{@link org.java_websocket.exceptions.WebsocketNotConnectedException}，
+     *          其他为发送时的异常
+     */
+    void onFailure(Exception e);
+}
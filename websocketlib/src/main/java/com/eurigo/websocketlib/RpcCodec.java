@@ -0,0 +1,89 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 22:30
+ * desc   : RPC请求和响应的编码，把调用id写入请求并从响应中取出，需与服务端的格式一致
+ */
+public interface RpcCodec {
+
+    /**
+     * {@link #decodeCallId(String)}的返回值，表示不是RPC响应，按普通消息回调onMessage
+     */
+    long NOT_A_RESPONSE = -1;
+
+    /**
+     * 编码请求
+     *
+     * @param callId  调用id，大于0
+     * @param request 请求内容
+     * @return 发送的文本消息
+     */
+    String encodeRequest(long callId, String request);
+
+    /**
+     * 在读线程中对每条文本消息调用，请勿执行耗时操作
+     *
+     * @param message 收到的文本消息
+     * @return 响应对应的调用id，不是响应时返回{@link #NOT_A_RESPONSE}
+     */
+    long decodeCallId(String message);
+
+    /**
+     * 在{@link #decodeCallId(String)}返回调用id后调用
+     *
+     * @param message 收到的文本消息
+     * @return 响应内容
+     */
+    String decodeResponse(String message);
+
+    /**
+     * 前缀格式：请求和响应均为 prefix + 调用id + ":" + 内容，例如"rpc:12:{...}"，
+     * 服务端原样带回前缀和调用id即可
+     *
+     * @param prefix 区分RPC消息和普通消息的前缀，例如"rpc:"
+     */
+    static RpcCodec prefixed(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("prefix must not be empty");
+        }
+        return new RpcCodec() {
+
+            /**
+             * 调用id最多18位，解析时不会溢出long
+             */
+            private static final int MAX_CALL_ID_DIGITS = 18;
+
+            @Override
+            public String encodeRequest(long callId, String request) {
+                return prefix + callId + ':' + request;
+            }
+
+            @Override
+            public long decodeCallId(String message) {
+                if (!message.startsWith(prefix)) {
+                    return NOT_A_RESPONSE;
+                }
+                long callId = 0;
+                int digits = 0;
+                int length = message.length();
+                for (int i = prefix.length(); i < length; i++) {
+                    char c = message.charAt(i);
+                    if (c == ':') {
+                        return digits == 0 ? NOT_A_RESPONSE : callId;
+                    }
+                    if (c < '0' || c > '9' || ++digits > MAX_CALL_ID_DIGITS) {
+                        return NOT_A_RESPONSE;
+                    }
+                    callId = callId * 10 + (c - '0');
+                }
+                return NOT_A_RESPONSE;
+            }
+
+            @Override
+            public String decodeResponse(String message) {
+                return message.substring(message.indexOf(':', prefix.length()) + 1);
+            }
+        };
+    }
+}
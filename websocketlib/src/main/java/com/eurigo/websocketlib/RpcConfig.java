@@ -0,0 +1,79 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 22:30
+ * desc   : RPC配置，通过{@link WsClient.Builder#setRpcConfig(RpcConfig)}开启，
+ * 多个请求可同时在一条连接上等待响应，按调用id匹配
+ */
+public final class RpcConfig {
+
+    private final RpcCodec codec;
+
+    private final long timeoutMillis;
+
+    private final int maxInFlight;
+
+    private RpcConfig(Builder builder) {
+        if (builder.timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be greater than 0");
+        }
+        if (builder.maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than 0");
+        }
+        this.codec = builder.codec == null ? RpcCodec.prefixed(Builder.DEFAULT_PREFIX) : builder.codec;
+        this.timeoutMillis = builder.timeoutMillis;
+        this.maxInFlight = builder.maxInFlight;
+    }
+
+    public RpcCodec getCodec() {
+        return codec;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public static final class Builder {
+
+        private static final String DEFAULT_PREFIX = "rpc:";
+
+        private RpcCodec codec;
+
+        private long timeoutMillis = 10_000;
+
+        private int maxInFlight = 256;
+
+        /**
+         * 请求和响应的编码，默认{@link RpcCodec#prefixed(String)}，前缀为"rpc:"
+         */
+        public Builder setCodec(RpcCodec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        /**
+         * 默认的响应超时，单位毫秒，默认10000
+         */
+        public Builder setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * 同时等待响应的最大调用数，超过时调用直接失败，默认256
+         */
+        public Builder setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public RpcConfig build() {
+            return new RpcConfig(this);
+        }
+    }
+}
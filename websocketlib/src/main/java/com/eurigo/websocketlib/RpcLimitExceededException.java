@@ -0,0 +1,15 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 22:30
+ * desc   : 等待响应的RPC调用数已达到{@link RpcConfig#getMaxInFlight()}
+ */
+public class RpcLimitExceededException extends IllegalStateException {
+
+    private static final long serialVersionUID = 7410318825937406152L;
+
+    public RpcLimitExceededException(String message) {
+        super(message);
+    }
+}
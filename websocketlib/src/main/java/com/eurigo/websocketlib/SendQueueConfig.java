@@ -0,0 +1,157 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 16:05
+ * desc   : 发送队列配置，限制单个WsClient未写出的数据量，
+ * 统计范围包括排队中的消息和Java-WebSocket内部尚未写入socket的帧
+ */
+public final class SendQueueConfig {
+
+    /**
+     * 队列已满时的处理策略
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 阻塞发送线程直到有空间，超过blockTimeoutMillis后按FAIL_FAST处理。
+         * 请勿在回调线程中使用，否则会阻塞帧的读取
+         */
+        BLOCK,
+
+        /**
+         * 丢弃最早排队的消息
+         */
+        DROP_OLDEST,
+
+        /**
+         * 丢弃本次发送的消息
+         */
+        DROP_NEWEST,
+
+        /**
+         * 抛出{@link SendQueueFullException}，不再回调onSendDropped
+         */
+        FAIL_FAST
+    }
+
+    private final long maxBytes;
+
+    private final int maxMessages;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final long highWaterMark;
+
+    private final long lowWaterMark;
+
+    private final long blockTimeoutMillis;
+
+    private SendQueueConfig(Builder builder) {
+        if (builder.maxBytes <= 0 || builder.maxMessages <= 0) {
+            throw new IllegalArgumentException("maxBytes and maxMessages must be greater than 0");
+        }
+        long high = builder.highWaterMark > 0 ? builder.highWaterMark : builder.maxBytes / 2;
+        long low = builder.lowWaterMark > 0 ? builder.lowWaterMark : high / 2;
+        if (low > high || high > builder.maxBytes) {
+            throw new IllegalArgumentException("lowWaterMark <= highWaterMark <= maxBytes is required");
+        }
+        this.maxBytes = builder.maxBytes;
+        this.maxMessages = builder.maxMessages;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.highWaterMark = high;
+        this.lowWaterMark = low;
+        this.blockTimeoutMillis = builder.blockTimeoutMillis;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getMaxMessages() {
+        return maxMessages;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    public static final class Builder {
+
+        private long maxBytes = 1024 * 1024;
+
+        private int maxMessages = Integer.MAX_VALUE;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.FAIL_FAST;
+
+        private long highWaterMark;
+
+        private long lowWaterMark;
+
+        private long blockTimeoutMillis = 5000;
+
+        /**
+         * 最大未写出字节数，默认1MB
+         */
+        public Builder setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * 最大未写出消息数，默认不限制
+         */
+        public Builder setMaxMessages(int maxMessages) {
+            this.maxMessages = maxMessages;
+            return this;
+        }
+
+        /**
+         * 队列已满时的策略，默认FAIL_FAST
+         */
+        public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * 高水位，未写出字节数超过后回调onWritabilityChanged(false)，默认maxBytes的一半
+         */
+        public Builder setHighWaterMark(long highWaterMark) {
+            this.highWaterMark = highWaterMark;
+            return this;
+        }
+
+        /**
+         * 低水位，不可写状态下未写出字节数低于后回调onWritabilityChanged(true)，默认高水位的一半
+         */
+        public Builder setLowWaterMark(long lowWaterMark) {
+            this.lowWaterMark = lowWaterMark;
+            return this;
+        }
+
+        /**
+         * BLOCK策略的最长等待时间，单位毫秒，默认5000
+         */
+        public Builder setBlockTimeoutMillis(long blockTimeoutMillis) {
+            this.blockTimeoutMillis = blockTimeoutMillis;
+            return this;
+        }
+
+        public SendQueueConfig build() {
+            return new SendQueueConfig(this);
+        }
+    }
+}
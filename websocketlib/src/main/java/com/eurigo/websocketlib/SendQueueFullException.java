@@ -0,0 +1,15 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 16:08
+ * desc   : 发送队列已满
+ */
+public class SendQueueFullException extends IllegalStateException {
+
+    private static final long serialVersionUID = -3185716625183440627L;
+
+    public SendQueueFullException(String message) {
+        super(message);
+    }
+}
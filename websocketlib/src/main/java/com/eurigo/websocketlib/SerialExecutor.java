@@ -0,0 +1,71 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 18:35
+ * desc   : 在共享线程池上按提交顺序执行任务，同一时间只有一个任务在运行
+ */
+final class SerialExecutor implements Executor, Runnable {
+
+    /**
+     * 每批最多执行的任务数，之后重新提交，避免一个繁忙的连接长期占用线程
+     */
+    private static final int MAX_BATCH = 64;
+
+    static final Executor DIRECT = Runnable::run;
+
+    private final Executor pool;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                pool.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                WsLogUtil.e("回调线程池拒绝执行, {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            Runnable task;
+            for (int i = 0; i < MAX_BATCH && (task = tasks.poll()) != null; i++) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    WsLogUtil.e("回调执行异常", e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // 释放标记后再检查，避免与execute竞争导致任务滞留
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
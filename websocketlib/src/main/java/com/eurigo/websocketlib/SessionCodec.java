@@ -0,0 +1,120 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:10
+ * desc   : 可恢复会话的消息编码，把序号写入文本消息并解析确认消息，需与服务端的格式一致
+ */
+public interface SessionCodec {
+
+    /**
+     * {@link #decodeSeq(String)}和{@link #decodeAck(String)}的返回值，表示不是带序号的消息或确认消息
+     */
+    long NOT_SEQUENCED = -1;
+
+    /**
+     * 编码带序号的消息
+     *
+     * @param seq     序号，从1开始递增
+     * @param message 消息内容
+     * @return 发送的文本消息
+     */
+    String encode(long seq, String message);
+
+    /**
+     * 在读线程中对每条文本消息调用，请勿执行耗时操作
+     *
+     * @param message 收到的文本消息
+     * @return 消息的序号，不带序号时返回{@link #NOT_SEQUENCED}，按普通消息回调
+     */
+    long decodeSeq(String message);
+
+    /**
+     * 在{@link #decodeSeq(String)}返回序号后调用
+     *
+     * @param message 收到的文本消息
+     * @return 消息内容
+     */
+    String decodePayload(String message);
+
+    /**
+     * 编码确认消息，表示已收到该序号及之前的全部消息
+     */
+    String encodeAck(long seq);
+
+    /**
+     * 在读线程中对每条文本消息调用，先于{@link #decodeSeq(String)}
+     *
+     * @param message 收到的文本消息
+     * @return 对方确认的序号，不是确认消息时返回{@link #NOT_SEQUENCED}
+     */
+    long decodeAck(String message);
+
+    /**
+     * 前缀格式：消息为 seqPrefix + 序号 + ":" + 内容，例如"seq:12:{...}"；
+     * 确认消息为 ackPrefix + 序号，例如"ack:12"，双方使用相同的格式
+     *
+     * @param seqPrefix 带序号的消息的前缀，例如"seq:"
+     * @param ackPrefix 确认消息的前缀，例如"ack:"
+     */
+    static SessionCodec prefixed(String seqPrefix, String ackPrefix) {
+        if (seqPrefix == null || seqPrefix.isEmpty() || ackPrefix == null || ackPrefix.isEmpty()) {
+            throw new IllegalArgumentException("prefix must not be empty");
+        }
+        if (seqPrefix.startsWith(ackPrefix) || ackPrefix.startsWith(seqPrefix)) {
+            throw new IllegalArgumentException("seqPrefix and ackPrefix must be distinguishable");
+        }
+        return new SessionCodec() {
+
+            @Override
+            public String encode(long seq, String message) {
+                return seqPrefix + seq + ':' + message;
+            }
+
+            @Override
+            public long decodeSeq(String message) {
+                if (!message.startsWith(seqPrefix)) {
+                    return NOT_SEQUENCED;
+                }
+                int end = message.indexOf(':', seqPrefix.length());
+                return end < 0 ? NOT_SEQUENCED : parseSeq(message, seqPrefix.length(), end);
+            }
+
+            @Override
+            public String decodePayload(String message) {
+                return message.substring(message.indexOf(':', seqPrefix.length()) + 1);
+            }
+
+            @Override
+            public String encodeAck(long seq) {
+                return ackPrefix + seq;
+            }
+
+            @Override
+            public long decodeAck(String message) {
+                if (!message.startsWith(ackPrefix)) {
+                    return NOT_SEQUENCED;
+                }
+                return parseSeq(message, ackPrefix.length(), message.length());
+            }
+
+            /**
+             * 解析[start, end)之间的十进制序号，不是数字或超过18位时返回{@link #NOT_SEQUENCED}
+             */
+            private long parseSeq(String message, int start, int end) {
+                if (end <= start || end - start > 18) {
+                    return NOT_SEQUENCED;
+                }
+                long seq = 0;
+                for (int i = start; i < end; i++) {
+                    char c = message.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return NOT_SEQUENCED;
+                    }
+                    seq = seq * 10 + (c - '0');
+                }
+                return seq;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:15
+ * desc   : 可恢复会话配置，通过{@link WsClient.Builder#setSessionConfig(SessionConfig)}开启，
+ * 重连后只补发对方未确认的消息，协议见{@link WsSession}
+ */
+public final class SessionConfig {
+
+    private final SessionCodec codec;
+
+    private final int retransmitCapacity;
+
+    private final long retransmitMaxBytes;
+
+    private final long ackDelayMillis;
+
+    private final int ackEvery;
+
+    private SessionConfig(Builder builder) {
+        if (builder.retransmitCapacity <= 0 || builder.retransmitMaxBytes <= 0) {
+            throw new IllegalArgumentException("retransmitCapacity and retransmitMaxBytes must be greater than 0");
+        }
+        if (builder.ackDelayMillis <= 0 || builder.ackEvery <= 0) {
+            throw new IllegalArgumentException("ackDelayMillis and ackEvery must be greater than 0");
+        }
+        this.codec = builder.codec == null
+                ? SessionCodec.prefixed(Builder.DEFAULT_SEQ_PREFIX, Builder.DEFAULT_ACK_PREFIX) : builder.codec;
+        this.retransmitCapacity = builder.retransmitCapacity;
+        this.retransmitMaxBytes = builder.retransmitMaxBytes;
+        this.ackDelayMillis = builder.ackDelayMillis;
+        this.ackEvery = builder.ackEvery;
+    }
+
+    public SessionCodec getCodec() {
+        return codec;
+    }
+
+    public int getRetransmitCapacity() {
+        return retransmitCapacity;
+    }
+
+    public long getRetransmitMaxBytes() {
+        return retransmitMaxBytes;
+    }
+
+    public long getAckDelayMillis() {
+        return ackDelayMillis;
+    }
+
+    public int getAckEvery() {
+        return ackEvery;
+    }
+
+    public static final class Builder {
+
+        private static final String DEFAULT_SEQ_PREFIX = "seq:";
+
+        private static final String DEFAULT_ACK_PREFIX = "ack:";
+
+        private SessionCodec codec;
+
+        private int retransmitCapacity = 1024;
+
+        private long retransmitMaxBytes = 1024 * 1024;
+
+        private long ackDelayMillis = 200;
+
+        private int ackEvery = 64;
+
+        /**
+         * 序号和确认消息的编码，默认{@link SessionCodec#prefixed(String, String)}，前缀为"seq:"和"ack:"
+         */
+        public Builder setCodec(SessionCodec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        /**
+         * 重传缓冲区保留的未确认消息数和字节数上限，超过时丢弃最早的已发送消息（握手期间尚未写出的消息除外），
+         * 对方确认前断开太久时无法完整恢复，默认1024条、1MB
+         */
+        public Builder setRetransmitLimit(int retransmitCapacity, long retransmitMaxBytes) {
+            this.retransmitCapacity = retransmitCapacity;
+            this.retransmitMaxBytes = retransmitMaxBytes;
+            return this;
+        }
+
+        /**
+         * 收到消息后延迟确认，期间收到的消息合并为一次确认，默认200毫秒
+         */
+        public Builder setAckDelayMillis(long ackDelayMillis) {
+            this.ackDelayMillis = ackDelayMillis;
+            return this;
+        }
+
+        /**
+         * 未确认的消息达到该数量时立即确认，不等待延迟，默认64
+         */
+        public Builder setAckEvery(int ackEvery) {
+            this.ackEvery = ackEvery;
+            return this;
+        }
+
+        public SessionConfig build() {
+            return new SessionConfig(this);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:20
+ * desc   : 流式发送配置，通过{@link WsClient.Builder#setStreamConfig(StreamConfig)}设置
+ */
+public final class StreamConfig {
+
+    private final int fragmentSize;
+
+    private final int maxQueuedFragments;
+
+    private StreamConfig(Builder builder) {
+        if (builder.fragmentSize <= 0 || builder.maxQueuedFragments <= 0) {
+            throw new IllegalArgumentException("fragmentSize and maxQueuedFragments must be greater than 0");
+        }
+        this.fragmentSize = builder.fragmentSize;
+        this.maxQueuedFragments = builder.maxQueuedFragments;
+    }
+
+    public int getFragmentSize() {
+        return fragmentSize;
+    }
+
+    public int getMaxQueuedFragments() {
+        return maxQueuedFragments;
+    }
+
+    public static final class Builder {
+
+        private int fragmentSize = 64 * 1024;
+
+        private int maxQueuedFragments = 2;
+
+        /**
+         * 每个分片的最大负载，单位字节，默认64K
+         */
+        public Builder setFragmentSize(int fragmentSize) {
+            this.fragmentSize = fragmentSize;
+            return this;
+        }
+
+        /**
+         * Java-WebSocket中尚未写入socket的帧达到该数量时暂停读取下一个分片，默认2。
+         * 越小，ping等控制帧在分片之间插队越快，内存占用也越小
+         */
+        public Builder setMaxQueuedFragments(int maxQueuedFragments) {
+            this.maxQueuedFragments = maxQueuedFragments;
+            return this;
+        }
+
+        public StreamConfig build() {
+            return new StreamConfig(this);
+        }
+    }
+}
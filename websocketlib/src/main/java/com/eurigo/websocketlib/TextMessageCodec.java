@@ -0,0 +1,18 @@
+package com.eurigo.websocketlib;
+
+import java.io.IOException;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 文本格式的消息编解码，{@link MessageSender}发送文本消息
+ *
+ * @param <T> 消息类型
+ */
+public interface TextMessageCodec<T> extends MessageCodec<T> {
+
+    /**
+     * 编码为文本消息，可能在任意发送线程中调用
+     */
+    String encode(T message) throws IOException;
+}
@@ -0,0 +1,240 @@
+package com.eurigo.websocketlib;
+
+import org.java_websocket.WebSocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 20:50
+ * desc   : WebSocketServer的主题订阅索引，通过{@link WsManager#getTopicRouter()}获取，
+ * 连接关闭时自动取消其所有订阅，{@link WsManager#publish(String, String)}只遍历匹配的订阅者
+ * <p>
+ * 主题按"/"分级，订阅时支持与MQTT相同的通配符："+"匹配一级，"#"匹配零或多级且只能位于最后一级，
+ * 例如"device/+/temperature"、"device/#"。发布的主题不能包含通配符
+ * <p>
+ * 订阅和取消订阅串行执行，匹配不加锁，可与订阅变更并发
+ */
+public final class TopicRouter {
+
+    private static final String SEPARATOR = "/";
+
+    private static final String SINGLE_LEVEL = "+";
+
+    private static final String MULTI_LEVEL = "#";
+
+    private final Node root = new Node(null, null);
+
+    /**
+     * 连接到其订阅的主题
+     */
+    private final ConcurrentHashMap<WebSocket, Set<String>> topicsByConnection = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+
+    TopicRouter() {
+    }
+
+    /**
+     * @param topic 订阅的主题，可包含通配符
+     * @return 是否是新的订阅
+     */
+    public boolean subscribe(WebSocket conn, String topic) {
+        if (conn == null) {
+            throw new IllegalArgumentException("conn must not be null");
+        }
+        String[] levels = split(topic, true);
+        synchronized (writeLock) {
+            if (!conn.isOpen()) {
+                return false;
+            }
+            Node node = root;
+            for (String level : levels) {
+                Node child = node.children.get(level);
+                if (child == null) {
+                    child = new Node(node, level);
+                    node.children.put(level, child);
+                }
+                node = child;
+            }
+            if (!node.subscribers.add(conn)) {
+                return false;
+            }
+            Set<String> topics = topicsByConnection.get(conn);
+            if (topics == null) {
+                topics = Collections.newSetFromMap(new ConcurrentHashMap<>());
+                topicsByConnection.put(conn, topics);
+            }
+            topics.add(topic);
+            return true;
+        }
+    }
+
+    /**
+     * @param topic 订阅时使用的主题，通配符按字面匹配
+     * @return 是否取消了订阅
+     */
+    public boolean unsubscribe(WebSocket conn, String topic) {
+        String[] levels = split(topic, true);
+        synchronized (writeLock) {
+            Set<String> topics = topicsByConnection.get(conn);
+            if (topics == null || !topics.remove(topic)) {
+                return false;
+            }
+            if (topics.isEmpty()) {
+                topicsByConnection.remove(conn);
+            }
+            Node node = root;
+            for (String level : levels) {
+                node = node.children.get(level);
+                if (node == null) {
+                    return true;
+                }
+            }
+            node.subscribers.remove(conn);
+            prune(node);
+            return true;
+        }
+    }
+
+    /**
+     * 取消连接的所有订阅
+     */
+    public void unsubscribeAll(WebSocket conn) {
+        synchronized (writeLock) {
+            Set<String> topics = topicsByConnection.remove(conn);
+            if (topics == null) {
+                return;
+            }
+            for (String topic : topics) {
+                Node node = root;
+                for (String level : split(topic, true)) {
+                    node = node.children.get(level);
+                    if (node == null) {
+                        break;
+                    }
+                }
+                if (node != null) {
+                    node.subscribers.remove(conn);
+                    prune(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * 清空所有订阅
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            root.children.clear();
+            root.subscribers.clear();
+            topicsByConnection.clear();
+        }
+    }
+
+    /**
+     * @return 连接订阅的主题
+     */
+    public Set<String> getTopics(WebSocket conn) {
+        Set<String> topics = topicsByConnection.get(conn);
+        return topics == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(topics));
+    }
+
+    /**
+     * @return 有订阅的连接数
+     */
+    public int getSubscribedConnectionCount() {
+        return topicsByConnection.size();
+    }
+
+    /**
+     * @param topic 发布的主题，不能包含通配符
+     * @return 订阅了匹配主题的连接，同一连接的多个订阅匹配时只出现一次
+     */
+    public Set<WebSocket> match(String topic) {
+        String[] levels = split(topic, false);
+        Set<WebSocket> result = new HashSet<>();
+        collect(root, levels, 0, result);
+        return result;
+    }
+
+    private static void collect(Node node, String[] levels, int index, Set<WebSocket> result) {
+        // "#"也匹配父级本身，例如"device/#"匹配"device"
+        Node multi = node.children.get(MULTI_LEVEL);
+        if (multi != null) {
+            result.addAll(multi.subscribers);
+        }
+        if (index == levels.length) {
+            result.addAll(node.subscribers);
+            return;
+        }
+        Node exact = node.children.get(levels[index]);
+        if (exact != null) {
+            collect(exact, levels, index + 1, result);
+        }
+        Node single = node.children.get(SINGLE_LEVEL);
+        if (single != null) {
+            collect(single, levels, index + 1, result);
+        }
+    }
+
+    /**
+     * 移除没有订阅者也没有子节点的节点，持有writeLock时调用
+     */
+    private void prune(Node node) {
+        while (node != root && node.subscribers.isEmpty() && node.children.isEmpty()) {
+            node.parent.children.remove(node.level);
+            node = node.parent;
+        }
+    }
+
+    private static String[] split(String topic, boolean allowWildcards) {
+        if (topic == null || topic.isEmpty()) {
+            throw new IllegalArgumentException("topic must not be empty");
+        }
+        List<String> levels = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int end = topic.indexOf(SEPARATOR, start);
+            String level = end < 0 ? topic.substring(start) : topic.substring(start, end);
+            boolean wildcard = SINGLE_LEVEL.equals(level) || MULTI_LEVEL.equals(level);
+            if (!wildcard && (level.contains(SINGLE_LEVEL) || level.contains(MULTI_LEVEL))) {
+                throw new IllegalArgumentException("Wildcards must occupy an entire level: " + topic);
+            }
+            if (wildcard && !allowWildcards) {
+                throw new IllegalArgumentException("Published topic must not contain wildcards: " + topic);
+            }
+            if (MULTI_LEVEL.equals(level) && end >= 0) {
+                throw new IllegalArgumentException("'#' must be the last level: " + topic);
+            }
+            levels.add(level);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return levels.toArray(new String[0]);
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+
+        private final String level;
+
+        private final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>();
+
+        private final Set<WebSocket> subscribers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        Node(Node parent, String level) {
+            this.parent = parent;
+            this.level = level;
+        }
+    }
+}
@@ -6,15 +6,33 @@ import com.eurigo.websocketlib.util.ThreadUtils;
 import com.eurigo.websocketlib.util.WsLogUtil;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.drafts.Draft;
 import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
 import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.PingFrame;
 import org.java_websocket.handshake.ServerHandshake;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Eurigo
@@ -24,6 +42,7 @@ import java.util.Map;
  */
 public class WsClient extends WebSocketClient {
 
+    @SuppressWarnings("unchecked")
     public WsClient(URI serverUri, Draft protocolDraft, Map<String, String> httpHeaders, int connectTimeout
             , Builder builder) {
         super(serverUri, protocolDraft, httpHeaders, connectTimeout);
@@ -33,16 +52,39 @@ public class WsClient extends WebSocketClient {
         if (builder.serverUrl == null) {
             throw new IllegalArgumentException("serverUrl must not be null");
         }
+        if ((builder.messageCodec == null) != (builder.messageListener == null)) {
+            throw new IllegalArgumentException("messageCodec and messageListener must be set together");
+        }
         this.listener = builder.listener;
         this.serverUrl = builder.serverUrl;
-        this.draft = builder.draft;
+        this.draft = protocolDraft;
         this.connectTimeout = builder.connectTimeout;
         this.httpHeaders = builder.httpHeaders;
         this.pingInterval = builder.pingInterval;
         this.wsKey = builder.wsKey;
         this.reconnectCount = builder.reconnectCount;
         this.reconnectInterval = builder.reconnectInterval;
+        this.reconnectPolicy = builder.reconnectPolicy != null ? builder.reconnectPolicy
+                : intervalPolicy(builder.reconnectInterval);
         this.reConnectWhenNetworkAvailable = builder.reConnectWhenNetworkAvailable;
+        this.bufferRecycler = builder.bufferRecycler;
+        this.sendQueueConfig = builder.sendQueueConfig;
+        this.outboundQueue = sendQueueConfig == null ? null : new OutboundQueue(this, sendQueueConfig);
+        this.batchConfig = builder.batchConfig;
+        this.messageBatcher = batchConfig == null ? null : new MessageBatcher(this, batchConfig);
+        this.deflateConfig = builder.deflateConfig;
+        this.callbackExecutor = builder.callbackExecutor;
+        this.callbacks = callbackExecutor.forConnection();
+        this.rpcConfig = builder.rpcConfig;
+        this.rpc = rpcConfig == null ? null : new WsRpc(this, rpcConfig);
+        this.messageCodec = builder.messageCodec;
+        this.messageListener = (IMessageListener<Object>) builder.messageListener;
+        this.messageDecoder = messageCodec == null ? null : (MessageCodec.Decoder<Object>) messageCodec.newDecoder();
+        this.streamConfig = builder.streamConfig;
+        this.outboxConfig = builder.outboxConfig;
+        this.outbox = outboxConfig == null ? null : Outbox.open(wsKey, outboxConfig);
+        this.sessionConfig = builder.sessionConfig;
+        this.session = sessionConfig == null ? null : new WsSession(this, sessionConfig);
         setConnectionLostTimeout(pingInterval);
     }
 
@@ -89,26 +131,87 @@ public class WsClient extends WebSocketClient {
     private final long reconnectInterval;
 
     /**
-     * 重连任务
+     * 重连间隔策略，未设置时首次立即重连，之后使用reconnectInterval作为固定间隔
+     */
+    private final ReconnectPolicy reconnectPolicy;
+
+    /**
+     * 未设置重连策略时与之前的固定频率重连一致：首次立即重连，之后每隔reconnectInterval秒重连一次
+     */
+    private static ReconnectPolicy intervalPolicy(long reconnectInterval) {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(reconnectInterval);
+        return (attempt, previousDelayMillis) -> attempt <= 1 ? 0 : intervalMillis;
+    }
+
+    /**
+     * 重连状态机，重连时复用同一个WsClient，状态随实例保留
      */
-    private ReconnectTask task;
+    private final ReconnectStateMachine reconnectStateMachine = new ReconnectStateMachine();
 
     public ReconnectTask getTask() {
-        return task;
+        return reconnectStateMachine.getTask();
+    }
+
+    ReconnectStateMachine getReconnectStateMachine() {
+        return reconnectStateMachine;
     }
 
-    public synchronized void runReconnectTask() {
-        if (WsManager.getInstance().getTaskReconnectCount() >= reconnectCount) {
-            WsLogUtil.e("已达到最大重连次数，如需重连请调用reset");
+    /**
+     * @return 当前重连状态
+     */
+    public ReconnectState getReconnectState() {
+        return reconnectStateMachine.getState();
+    }
+
+    /**
+     * @return 本轮已执行的重连次数
+     */
+    public int getReconnectAttempt() {
+        return reconnectStateMachine.getAttempt();
+    }
+
+    /**
+     * 清零重连次数，已放弃重连的WebSocket可再次重连
+     */
+    public void resetReconnect() {
+        reconnectStateMachine.reset();
+    }
+
+    public void runReconnectTask() {
+        if (reconnectCount <= 0) {
+            return;
+        }
+        if (reconnectStateMachine.getAttempt() >= reconnectCount) {
+            reconnectStateMachine.giveUp();
+            WsLogUtil.e("已达到最大重连次数，如需重连请调用reset, key = {}", wsKey);
+            return;
+        }
+        if (!WsManager.getInstance().isNetworkAvailable()) {
+            WsLogUtil.e("网络不可用, 不执行重连");
             return;
         }
-        if (WsManager.getInstance().isReconnectTaskRun()){
-            WsLogUtil.e("重连任务已正在运行");
+        if (!reconnectStateMachine.trySchedule()) {
+            WsLogUtil.e("重连任务已正在运行, key = {}", wsKey);
             return;
         }
-        ThreadUtils.cancel(task);
-        task = new ReconnectTask(wsKey);
-        task.execute();
+        scheduleReconnect();
+    }
+
+    /**
+     * 按重连策略调度下一次重连
+     */
+    void scheduleReconnect() {
+        scheduleReconnect(null);
+    }
+
+    /**
+     * @param caller 在执行中调度下一次重连的任务，不取消，为空时取消当前的任务
+     */
+    void scheduleReconnect(ReconnectTask caller) {
+        long delayMillis = reconnectStateMachine.nextDelayMillis(reconnectPolicy);
+        ReconnectTask task = new ReconnectTask(wsKey);
+        reconnectStateMachine.setTask(task, caller);
+        task.execute(delayMillis);
     }
 
     /**
@@ -118,6 +221,102 @@ public class WsClient extends WebSocketClient {
 
     private final Map<String, String> httpHeaders;
 
+    /**
+     * 发送缓冲区回收器，可为空
+     */
+    private final BufferRecycler bufferRecycler;
+
+    /**
+     * 发送队列配置，为空时不限制
+     */
+    private final SendQueueConfig sendQueueConfig;
+
+    private final OutboundQueue outboundQueue;
+
+    /**
+     * 文本消息批量发送配置，为空时不合并
+     */
+    private final BatchConfig batchConfig;
+
+    private final MessageBatcher messageBatcher;
+
+    /**
+     * permessage-deflate压缩配置，为空时不压缩
+     */
+    private final DeflateConfig deflateConfig;
+
+    /**
+     * 回调执行方式，默认在Java-WebSocket的读线程中执行
+     */
+    private final CallbackExecutor callbackExecutor;
+
+    /**
+     * 本连接的回调执行器，重连前后共用，保证回调顺序
+     */
+    private final Executor callbacks;
+
+    /**
+     * 连接指标，重连后不清零
+     */
+    private final WsMetrics metrics = new WsMetrics();
+
+    /**
+     * RPC配置，为空时不开启
+     */
+    private final RpcConfig rpcConfig;
+
+    /**
+     * 重连后保留等待中的调用表
+     */
+    private final WsRpc rpc;
+
+    /**
+     * 消息编解码，为空时只回调原始消息
+     */
+    private final MessageCodec<?> messageCodec;
+
+    private final IMessageListener<Object> messageListener;
+
+    /**
+     * 只在读线程中使用
+     */
+    private final MessageCodec.Decoder<Object> messageDecoder;
+
+    /**
+     * 流式发送配置，为空时使用默认配置
+     */
+    private final StreamConfig streamConfig;
+
+    /**
+     * 离线发送队列配置，为空时不开启
+     */
+    private final OutboxConfig outboxConfig;
+
+    /**
+     * 同一wsKey的WsClient共用
+     */
+    private final Outbox outbox;
+
+    /**
+     * 可恢复会话配置，为空时不编号
+     */
+    private final SessionConfig sessionConfig;
+
+    /**
+     * 重连后保留序号和重传缓冲区
+     */
+    private final WsSession session;
+
+    /**
+     * 保证分片消息的帧不会与其他消息交错
+     */
+    private final Object sendLock = new Object();
+
+    /**
+     * 每次发起连接时加一，用于区分重连前旧连接的onClose
+     */
+    private final AtomicInteger connectGeneration = new AtomicInteger();
+
     public IWebSocketListener getListener() {
         return listener;
     }
@@ -146,6 +345,10 @@ public class WsClient extends WebSocketClient {
         return reconnectInterval;
     }
 
+    public ReconnectPolicy getReconnectPolicy() {
+        return reconnectPolicy;
+    }
+
     public boolean isReConnectWhenNetworkAvailable() {
         return reConnectWhenNetworkAvailable;
     }
@@ -154,49 +357,665 @@ public class WsClient extends WebSocketClient {
         return httpHeaders;
     }
 
+    public BufferRecycler getBufferRecycler() {
+        return bufferRecycler;
+    }
+
+    public SendQueueConfig getSendQueueConfig() {
+        return sendQueueConfig;
+    }
+
+    public BatchConfig getBatchConfig() {
+        return batchConfig;
+    }
+
+    public DeflateConfig getDeflateConfig() {
+        return deflateConfig;
+    }
+
+    /**
+     * @return 本次连接协商的压缩扩展，可获取压缩率等统计，未协商压缩时为空
+     */
+    public DeflateExtension getDeflateExtension() {
+        return DeflateExtension.of(getConnection());
+    }
+
+    public CallbackExecutor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    public RpcConfig getRpcConfig() {
+        return rpcConfig;
+    }
+
+    /**
+     * @return 请求/响应调用入口，未设置{@link RpcConfig}时为空
+     */
+    public WsRpc getRpc() {
+        return rpc;
+    }
+
+    public MessageCodec<?> getMessageCodec() {
+        return messageCodec;
+    }
+
+    public IMessageListener<?> getMessageListener() {
+        return messageListener;
+    }
+
+    public StreamConfig getStreamConfig() {
+        return streamConfig;
+    }
+
+    public OutboxConfig getOutboxConfig() {
+        return outboxConfig;
+    }
+
+    /**
+     * @return 离线发送队列，未设置{@link OutboxConfig}或打开失败时为空
+     */
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public SessionConfig getSessionConfig() {
+        return sessionConfig;
+    }
+
+    /**
+     * @return 可恢复会话，未配置{@link SessionConfig}时为空
+     */
+    public WsSession getSession() {
+        return session;
+    }
+
+    public WsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return 当前的连接指标，包括发送队列深度
+     */
+    public WsMetrics.Snapshot getMetricsSnapshot() {
+        return metrics.snapshot(wsKey, getPendingSendMessages(), getPendingSendBytes(), getEngineQueuedFrames());
+    }
+
+    /**
+     * 记录发起连接的时间，connectBlocking和reconnect同样经过这里
+     */
+    @Override
+    public void connect() {
+        connectGeneration.incrementAndGet();
+        metrics.onConnectStart();
+        if (session != null) {
+            session.prepareHandshake(this);
+        }
+        super.connect();
+    }
+
+    /**
+     * 发送文本消息，配置了{@link BatchConfig}时先进入当前批次，
+     * 批次写出失败时通过{@link IWebSocketListener#onSendDropped}通知
+     */
     @Override
     public void send(String text) {
-        super.send(text);
-        listener.onSendMessage(this, text);
+        if (outbox != null && outbox.offer(this, text)) {
+            return;
+        }
+        if (messageBatcher == null) {
+            enqueue(text);
+            return;
+        }
+        if (!isOpen()) {
+            throw new WebsocketNotConnectedException();
+        }
+        messageBatcher.add(text);
     }
 
     @Override
     public void send(byte[] data) {
-        super.send(data);
-        listener.onSendMessage(this, data);
+        flush();
+        if (outbox != null && outbox.offer(this, data)) {
+            return;
+        }
+        enqueue(data);
+    }
+
+    /**
+     * 发送二进制消息，调用即转移缓冲区所有权，
+     * 帧编码完成后（发送失败或被发送队列丢弃时同样）交给{@link BufferRecycler}回收，期间不会拷贝到新的数组
+     *
+     * @param bytes 从position到limit的数据
+     */
+    @Override
+    public void send(ByteBuffer bytes) {
+        flush();
+        if (outbox != null && outbox.offer(this, bytes)) {
+            return;
+        }
+        enqueue(bytes);
+    }
+
+    /**
+     * 补发离线发送队列中的消息，不经过批量发送和发送队列，直接交给Java-WebSocket后才从离线发送队列中移除，
+     * 由补发方按{@link #isWritable()}控制速度
+     */
+    void writeFromOutbox(Object payload) {
+        write(payload);
+    }
+
+    /**
+     * 将多个缓冲区作为一条二进制消息分片发送，不合并拷贝，所有权约定同{@link #send(ByteBuffer)}
+     *
+     * @param buffers 按顺序组成一条消息的缓冲区
+     */
+    public void send(ByteBuffer... buffers) {
+        if (buffers == null || buffers.length == 0) {
+            return;
+        }
+        flush();
+        if (outbox != null && outbox.offer(this, buffers)) {
+            return;
+        }
+        enqueue(buffers);
+    }
+
+    /**
+     * 获取按文本编码发送的{@link MessageSender}
+     *
+     * @param codec 通过{@link Builder#setMessageCodec(MessageCodec, IMessageListener)}设置的编解码器
+     */
+    public <T> MessageSender<T> getMessageSender(TextMessageCodec<T> codec) {
+        checkMessageCodec(codec);
+        return new MessageSender<>(this, codec, null);
+    }
+
+    /**
+     * 获取按二进制编码发送的{@link MessageSender}
+     *
+     * @param codec 通过{@link Builder#setMessageCodec(MessageCodec, IMessageListener)}设置的编解码器
+     */
+    public <T> MessageSender<T> getMessageSender(BinaryMessageCodec<T> codec) {
+        checkMessageCodec(codec);
+        return new MessageSender<>(this, null, codec);
+    }
+
+    private void checkMessageCodec(MessageCodec<?> codec) {
+        if (codec == null || codec != messageCodec) {
+            throw new IllegalArgumentException("codec is not the one set by Builder.setMessageCodec");
+        }
+    }
+
+    /**
+     * 在后台线程中边读边发，整个数据流作为一条二进制消息按{@link StreamConfig}分片发送，发送结束后关闭数据流。
+     * 调用前已发送的消息先于本消息发出，发送期间其他消息等待本消息完成，
+     * 未配置{@link SendQueueConfig}时会阻塞发送线程，请勿在回调线程中发送
+     *
+     * @param in         数据流
+     * @param totalBytes 总字节数，仅用于回调进度，未知时传-1
+     */
+    public OutboundStream sendStream(InputStream in, long totalBytes, IStreamListener listener) {
+        if (in == null) {
+            throw new IllegalArgumentException("in must not be null");
+        }
+        return sendStream(Channels.newChannel(in), totalBytes, listener);
+    }
+
+    /**
+     * 同{@link #sendStream(InputStream, long, IStreamListener)}，channel需为阻塞模式
+     */
+    public OutboundStream sendStream(ReadableByteChannel channel, long totalBytes, IStreamListener listener) {
+        if (channel == null || listener == null) {
+            throw new IllegalArgumentException("channel and listener must not be null");
+        }
+        if (!isOpen()) {
+            throw new WebsocketNotConnectedException();
+        }
+        flush();
+        OutboundStream stream = new OutboundStream(this, channel, totalBytes
+                , streamConfig == null ? new StreamConfig.Builder().build() : streamConfig, listener, callbacks
+                , outboundQueue);
+        ThreadUtils.getCachedPool().execute(stream::run);
+        return stream;
+    }
+
+    /**
+     * 流式发送文件
+     *
+     * @see #sendStream(InputStream, long, IStreamListener)
+     */
+    public OutboundStream sendFile(File file, IStreamListener listener) throws FileNotFoundException {
+        if (file == null || listener == null) {
+            throw new IllegalArgumentException("file and listener must not be null");
+        }
+        if (!isOpen()) {
+            throw new WebsocketNotConnectedException();
+        }
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            return sendStream(channel, file.length(), listener);
+        } catch (RuntimeException e) {
+            // 未创建发送任务时由这里关闭文件
+            try {
+                channel.close();
+            } catch (IOException ce) {
+                WsLogUtil.e("关闭文件失败, {}", ce.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    Object getSendLock() {
+        return sendLock;
+    }
+
+    /**
+     * @return 发起连接的次数，旧连接的onClose在重连reset时回调，此时尚未加一
+     */
+    int getConnectGeneration() {
+        return connectGeneration.get();
+    }
+
+    /**
+     * @return 本连接的回调执行器
+     */
+    Executor getCallbacks() {
+        return callbacks;
+    }
+
+    /**
+     * 立即写出当前批次中的文本消息，未配置{@link BatchConfig}时无作用
+     */
+    public void flush() {
+        if (messageBatcher != null) {
+            messageBatcher.flush();
+        }
+    }
+
+    /**
+     * 写出一个批次，批次中的消息已从send返回，失败时不再抛出
+     *
+     * @param payload  打包后的消息或{@link MessageBatcher.TextBatch}
+     * @param messages 批次中的原始消息
+     */
+    void enqueueBatch(Object payload, List<String> messages) {
+        try {
+            enqueue(payload);
+        } catch (RuntimeException e) {
+            WsLogUtil.e("批量发送失败, key = {}, {}", wsKey, e.getMessage());
+            for (String text : messages) {
+                notifySendDropped(text);
+            }
+        }
+    }
+
+    /**
+     * 配置了发送队列时先进入队列，否则直接发送
+     */
+    private void enqueue(Object payload) {
+        if (outboundQueue == null) {
+            try {
+                write(payload);
+            } catch (RuntimeException e) {
+                recyclePayload(payload);
+                throw e;
+            }
+            return;
+        }
+        if (!isOpen()) {
+            recyclePayload(payload);
+            throw new WebsocketNotConnectedException();
+        }
+        try {
+            outboundQueue.offer(payload);
+        } catch (SendQueueFullException e) {
+            recyclePayload(payload);
+            throw e;
+        }
+    }
+
+    /**
+     * 把消息交给Java-WebSocket编码，失败时抛出异常，缓冲区由调用方回收
+     */
+    void write(Object payload) {
+        if (payload instanceof String) {
+            String text = (String) payload;
+            synchronized (sendLock) {
+                if (session == null) {
+                    super.send(text);
+                } else {
+                    writeSequenced(text);
+                }
+            }
+            metrics.onMessageSent(OutboundQueue.utf8Length(text));
+            callbacks.execute(() -> listener.onSendMessage(this, text));
+        } else if (payload instanceof byte[]) {
+            byte[] data = (byte[]) payload;
+            synchronized (sendLock) {
+                super.send(data);
+            }
+            metrics.onMessageSent(data.length);
+            callbacks.execute(() -> listener.onSendMessage(this, data));
+        } else if (payload instanceof ByteBuffer) {
+            writeBuffer((ByteBuffer) payload);
+        } else if (payload instanceof ByteBuffer[]) {
+            writeBuffers((ByteBuffer[]) payload);
+        } else if (payload instanceof MessageBatcher.TextBatch) {
+            writeBatch(((MessageBatcher.TextBatch) payload).messages);
+        } else {
+            throw new IllegalArgumentException("Unsupported payload: " + payload);
+        }
+    }
+
+    /**
+     * 持有发送锁时调用，写入序号后发送，握手完成但会话尚未补发时只进入重传缓冲区
+     */
+    private void writeSequenced(String text) {
+        String frame = session.onWrite(text, isOpen());
+        if (frame == null) {
+            return;
+        }
+        try {
+            super.send(frame);
+        } catch (RuntimeException e) {
+            session.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * 发送会话的确认消息或补发已编号的消息，不经过发送队列
+     */
+    void writeSessionFrame(String frame) {
+        synchronized (sendLock) {
+            super.send(frame);
+        }
+    }
+
+    private void writeBuffer(ByteBuffer bytes) {
+        int position = bytes.position();
+        int length = bytes.remaining();
+        synchronized (sendLock) {
+            super.send(bytes);
+        }
+        metrics.onMessageSent(length);
+        // 客户端掩码编码会移动position，还原后交给回调，回调结束后回收
+        bytes.position(position);
+        callbacks.execute(() -> {
+            try {
+                listener.onSendMessage(this, bytes);
+            } finally {
+                recycle(bytes);
+            }
+        });
+    }
+
+    private void writeBuffers(ByteBuffer[] buffers) {
+        int[] positions = new int[buffers.length];
+        long length = 0;
+        synchronized (sendLock) {
+            for (int i = 0; i < buffers.length; i++) {
+                positions[i] = buffers[i].position();
+                length += buffers[i].remaining();
+                sendFragmentedFrame(Opcode.BINARY, buffers[i], i == buffers.length - 1);
+            }
+        }
+        metrics.onMessageSent(length);
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].position(positions[i]);
+        }
+        callbacks.execute(() -> {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    listener.onSendMessage(this, buffer);
+                }
+            } finally {
+                for (ByteBuffer buffer : buffers) {
+                    recycle(buffer);
+                }
+            }
+        });
+    }
+
+    /**
+     * 每条消息编码为独立的帧，拼接后作为一个缓冲区放入Java-WebSocket的outQueue，由写线程一次写入socket
+     */
+    private void writeBatch(List<String> messages) {
+        synchronized (sendLock) {
+            if (!isOpen()) {
+                throw new WebsocketNotConnectedException();
+            }
+            // 使用连接实际协商的协议，扩展（如permessage-deflate）的状态保存在其中
+            WebSocketImpl connection = (WebSocketImpl) getConnection();
+            Draft engineDraft = connection.getDraft();
+            List<ByteBuffer> frames = new ArrayList<>(messages.size());
+            int total = 0;
+            long length = 0;
+            for (String text : messages) {
+                length += OutboundQueue.utf8Length(text);
+                String sequenced = session == null ? text : session.onWrite(text, true);
+                if (sequenced == null) {
+                    continue;
+                }
+                for (Framedata frame : engineDraft.createFrames(sequenced, true)) {
+                    ByteBuffer encoded = engineDraft.createBinaryFrame(frame);
+                    frames.add(encoded);
+                    total += encoded.remaining();
+                }
+            }
+            // 写线程按array()从0写到limit，必须是从0开始的堆内缓冲区
+            ByteBuffer out = ByteBuffer.allocate(total);
+            for (ByteBuffer frame : frames) {
+                out.put(frame);
+            }
+            out.flip();
+            connection.outQueue.add(out);
+            onWriteDemand(connection);
+            metrics.onMessagesSent(messages.size(), length);
+        }
+        callbacks.execute(() -> {
+            for (String text : messages) {
+                listener.onSendMessage(this, text);
+            }
+        });
+    }
+
+    /**
+     * 通知未发送的消息，批次展开为原始消息，回调结束后回收缓冲区
+     */
+    void notifySendDropped(Object payload) {
+        metrics.onMessageDropped(payload instanceof MessageBatcher.TextBatch
+                ? ((MessageBatcher.TextBatch) payload).messages.size() : 1);
+        callbacks.execute(() -> {
+            try {
+                if (payload instanceof MessageBatcher.TextBatch) {
+                    for (String text : ((MessageBatcher.TextBatch) payload).messages) {
+                        listener.onSendDropped(this, text);
+                    }
+                } else {
+                    listener.onSendDropped(this, payload);
+                }
+            } finally {
+                recyclePayload(payload);
+            }
+        });
+    }
+
+    void notifyWritabilityChanged(boolean writable) {
+        callbacks.execute(() -> listener.onWritabilityChanged(this, writable));
+    }
+
+    /**
+     * 回收未发送的消息中的缓冲区
+     */
+    void recyclePayload(Object payload) {
+        if (payload instanceof ByteBuffer) {
+            recycle((ByteBuffer) payload);
+        } else if (payload instanceof ByteBuffer[]) {
+            for (ByteBuffer buffer : (ByteBuffer[]) payload) {
+                recycle(buffer);
+            }
+        }
+    }
+
+    private void recycle(ByteBuffer buffer) {
+        if (bufferRecycler != null && buffer != null) {
+            bufferRecycler.recycle(buffer);
+        }
+    }
+
+    /**
+     * @return Java-WebSocket中尚未写入socket的帧数
+     */
+    int getEngineQueuedFrames() {
+        WebSocket connection = getConnection();
+        if (connection instanceof WebSocketImpl) {
+            return ((WebSocketImpl) connection).outQueue.size();
+        }
+        return 0;
+    }
+
+    /**
+     * @return 是否低于发送队列高水位，未配置发送队列时总是true
+     */
+    public boolean isWritable() {
+        return outboundQueue == null || outboundQueue.isWritable();
+    }
+
+    /**
+     * @return 发送队列中未写出的字节数，未配置发送队列时为0
+     */
+    public long getPendingSendBytes() {
+        return outboundQueue == null ? 0 : outboundQueue.getPendingBytes();
+    }
+
+    /**
+     * @return 发送队列中未写出的消息数，未配置发送队列时为0
+     */
+    public int getPendingSendMessages() {
+        return outboundQueue == null ? 0 : outboundQueue.getPendingMessages();
     }
 
     @Override
     public void onOpen(ServerHandshake handshakedata) {
-        ThreadUtils.cancel(task);
-        listener.onConnected(this);
+        metrics.onOpen();
+        reconnectStateMachine.onOpen();
+        if (session != null) {
+            // 补发完成前其他线程的发送等待，保证序号顺序
+            synchronized (sendLock) {
+                session.onOpen(handshakedata, callbacks);
+            }
+        }
+        if (outbox != null) {
+            outbox.onOpen(this);
+        }
+        WsManager.getInstance().onClientOpen(this);
+        callbacks.execute(() -> listener.onConnected(this));
     }
 
     @Override
     public void onMessage(String message) {
-        listener.onMessage(this, message);
+        metrics.onMessageReceived(OutboundQueue.utf8Length(message));
+        String payload = session == null ? message : session.onMessage(message);
+        if (payload == null) {
+            return;
+        }
+        if (rpc != null && rpc.onMessage(payload, callbacks)) {
+            return;
+        }
+        if (messageDecoder != null && dispatchDecoded(payload)) {
+            return;
+        }
+        callbacks.execute(() -> listener.onMessage(this, payload));
+    }
+
+    @Override
+    public void onMessage(ByteBuffer bytes) {
+        metrics.onMessageReceived(bytes.remaining());
+        if (messageDecoder != null) {
+            int position = bytes.position();
+            if (dispatchDecoded(bytes)) {
+                return;
+            }
+            bytes.position(position);
+        }
+        callbacks.execute(() -> listener.onMessage(this, bytes));
+    }
+
+    /**
+     * 在读线程中解码，只解码一次
+     *
+     * @param message String或ByteBuffer
+     * @return 是否已按类型回调，解码失败同样视为已处理
+     */
+    private boolean dispatchDecoded(Object message) {
+        Object decoded;
+        try {
+            decoded = message instanceof String ? messageDecoder.decode((String) message)
+                    : messageDecoder.decode((ByteBuffer) message);
+        } catch (Exception e) {
+            WsLogUtil.e("消息解码失败, key = {}, {}", wsKey, e.getMessage());
+            callbacks.execute(() -> messageListener.onDecodeError(this, e));
+            return true;
+        }
+        if (decoded == null) {
+            return false;
+        }
+        callbacks.execute(() -> messageListener.onMessage(this, decoded));
+        return true;
     }
 
     @Override
     public void onClose(int code, String reason, boolean remote) {
-        listener.onDisconnect(this, new DisConnectReason(code, reason, remote));
-        runReconnectTask();
+        metrics.onClose(reconnectStateMachine.getState() == ReconnectState.OPEN);
+        if (messageBatcher != null) {
+            messageBatcher.clear();
+        }
+        if (outboundQueue != null) {
+            outboundQueue.clear();
+        }
+        if (rpc != null) {
+            rpc.onClose(callbacks);
+        }
+        if (session != null) {
+            session.onClose();
+        }
+        DisConnectReason disConnectReason = new DisConnectReason(code, reason, remote);
+        WsManager.getInstance().onClientClose(this, disConnectReason);
+        callbacks.execute(() -> listener.onDisconnect(this, disConnectReason));
+        if (reconnectStateMachine.retryAfterFailure(reconnectCount)) {
+            scheduleReconnect();
+        } else if (reconnectStateMachine.getState() == ReconnectState.GAVE_UP) {
+            WsLogUtil.e("已达到最大重连次数，如需重连请调用reset, key = {}", wsKey);
+        } else if (reconnectStateMachine.onClose()) {
+            runReconnectTask();
+        }
     }
 
     @Override
     public void onError(Exception ex) {
-        listener.onError(this, ex);
+        callbacks.execute(() -> listener.onError(this, ex));
     }
 
     @Override
     public void onWebsocketPing(WebSocket conn, Framedata frameData) {
         super.onWebsocketPing(conn, frameData);
-        listener.onPing(this, frameData);
+        callbacks.execute(() -> listener.onPing(this, frameData));
+    }
+
+    /**
+     * 手动sendPing和心跳检测发出的ping都经过这里，记录发送时间用于计算往返时间
+     */
+    @Override
+    public PingFrame onPreparePing(WebSocket conn) {
+        metrics.onPingSent();
+        return super.onPreparePing(conn);
     }
 
     @Override
     public void onWebsocketPong(WebSocket conn, Framedata frameData) {
-        listener.onPong(this, frameData);
+        metrics.onPong();
+        callbacks.execute(() -> listener.onPong(this, frameData));
     }
 
     @Override
@@ -222,10 +1041,34 @@ public class WsClient extends WebSocketClient {
 
         private long reconnectInterval = 1000;
 
+        private ReconnectPolicy reconnectPolicy;
+
         private boolean reConnectWhenNetworkAvailable = true;
 
         private Map<String, String> httpHeaders = new HashMap<>();
 
+        private BufferRecycler bufferRecycler;
+
+        private SendQueueConfig sendQueueConfig;
+
+        private BatchConfig batchConfig;
+
+        private CallbackExecutor callbackExecutor = CallbackExecutor.direct();
+
+        private DeflateConfig deflateConfig;
+
+        private RpcConfig rpcConfig;
+
+        private MessageCodec<?> messageCodec;
+
+        private StreamConfig streamConfig;
+
+        private OutboxConfig outboxConfig;
+
+        private SessionConfig sessionConfig;
+
+        private IMessageListener<?> messageListener;
+
         public Builder setServerUrl(String serverUrl) {
             this.serverUrl = serverUrl;
             return this;
@@ -266,6 +1109,17 @@ public class WsClient extends WebSocketClient {
             return this;
         }
 
+        /**
+         * 设置重连间隔策略，设置后reconnectInterval不再生效
+         *
+         * @param reconnectPolicy 可使用{@link ReconnectPolicy#exponential}、
+         *                        {@link ReconnectPolicy#decorrelatedJitter}、{@link ReconnectPolicy#capped}
+         */
+        public Builder setReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+            this.reconnectPolicy = reconnectPolicy;
+            return this;
+        }
+
         public Builder setHttpHeaders(Map<String, String> httpHeaders) {
             this.httpHeaders = httpHeaders;
             return this;
@@ -276,8 +1130,92 @@ public class WsClient extends WebSocketClient {
             return this;
         }
 
+        /**
+         * 设置{@link WsClient#send(ByteBuffer)}的缓冲区回收器，例如{@link com.eurigo.websocketlib.util.ByteBufferPool}
+         */
+        public Builder setBufferRecycler(BufferRecycler bufferRecycler) {
+            this.bufferRecycler = bufferRecycler;
+            return this;
+        }
+
+        /**
+         * 设置有界发送队列，默认不限制
+         */
+        public Builder setSendQueueConfig(SendQueueConfig sendQueueConfig) {
+            this.sendQueueConfig = sendQueueConfig;
+            return this;
+        }
+
+        /**
+         * 开启文本消息批量发送，默认关闭
+         */
+        public Builder setBatchConfig(BatchConfig batchConfig) {
+            this.batchConfig = batchConfig;
+            return this;
+        }
+
+        /**
+         * 设置回调的执行方式，默认{@link CallbackExecutor#direct()}，同一连接的回调总是按顺序执行
+         *
+         * @param callbackExecutor 可使用{@link CallbackExecutor#dedicated()}、{@link CallbackExecutor#shared()}
+         */
+        public Builder setCallbackExecutor(CallbackExecutor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor == null ? CallbackExecutor.direct() : callbackExecutor;
+            return this;
+        }
+
+        /**
+         * 开启permessage-deflate压缩，默认关闭，设置后draft不再生效
+         */
+        public Builder setDeflateConfig(DeflateConfig deflateConfig) {
+            this.deflateConfig = deflateConfig;
+            return this;
+        }
+
+        /**
+         * 开启请求/响应调用，通过{@link WsClient#getRpc()}使用，默认关闭
+         */
+        public Builder setRpcConfig(RpcConfig rpcConfig) {
+            this.rpcConfig = rpcConfig;
+            return this;
+        }
+
+        /**
+         * 设置消息编解码，收到的消息解码后回调listener，解码器返回null的消息仍回调{@link IWebSocketListener#onMessage}，
+         * 默认不解码
+         */
+        public <T> Builder setMessageCodec(MessageCodec<T> codec, IMessageListener<? super T> listener) {
+            this.messageCodec = codec;
+            this.messageListener = listener;
+            return this;
+        }
+
+        /**
+         * 设置{@link WsClient#sendStream}的分片大小和积压上限，默认64K分片
+         */
+        public Builder setStreamConfig(StreamConfig streamConfig) {
+            this.streamConfig = streamConfig;
+            return this;
+        }
+
+        /**
+         * 开启离线发送队列，未连接时发送的消息写入磁盘，连接后按顺序补发，默认关闭
+         */
+        public Builder setOutboxConfig(OutboxConfig outboxConfig) {
+            this.outboxConfig = outboxConfig;
+            return this;
+        }
+
+        /**
+         * 开启可恢复会话，文本消息带序号发送，重连时只补发对方未确认的消息，需服务端配合，默认关闭
+         */
+        public Builder setSessionConfig(SessionConfig sessionConfig) {
+            this.sessionConfig = sessionConfig;
+            return this;
+        }
+
         public WsClient build() {
-            return new WsClient(URI.create(serverUrl), draft
+            return new WsClient(URI.create(serverUrl), deflateConfig == null ? draft : deflateConfig.createDraft()
                     , httpHeaders, connectTimeout, this);
         }
     }
@@ -12,19 +12,23 @@ import android.net.NetworkRequest;
 import android.os.Build;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
 
 import com.eurigo.websocketlib.util.AppUtils;
 import com.eurigo.websocketlib.util.ThreadUtils;
 import com.eurigo.websocketlib.util.WsLogUtil;
 
-import org.java_websocket.WebSocket;
-import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
-import java.net.BindException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Eurigo
@@ -45,19 +49,39 @@ public class WsManager {
     public static final String DEFAULT_WEBSOCKET = "DEFAULT_WEBSOCKET";
     public static final String NO_INIT = "没有初始化";
 
-    private WebSocketServer webSocketServer;
+    /**
+     * 所有内置服务的合集
+     */
+    private final ConcurrentHashMap<String, WsServer> serverMap = new ConcurrentHashMap<>();
+
+    public static final String DEFAULT_SERVER = "DEFAULT_SERVER";
+
+    private boolean serverShutdownHookAdded;
+
+    /**
+     * 广播时单个连接允许积压的帧数
+     */
+    private volatile int broadcastBacklogLimit = 256;
 
     private ConnectivityManager connectivityManager;
-    private ConnectivityManager.NetworkCallback networkCallback;
+    private volatile ConnectivityManager.NetworkCallback networkCallback;
     private boolean isNetworkAvailable;
 
-    private boolean isReconnectTaskRun = false;
+    /**
+     * 网络回调报告的可连接互联网的网络，切换网络时先后收到新网络的onAvailable和旧网络的onLost
+     */
+    private final Set<Network> availableNetworks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private volatile ReconnectGuardianTask guardianTask;
 
-    private int attempt = 0;
+    /**
+     * 进行中的{@link #startAll(int, long, IStartListener)}
+     */
+    private final Set<ParallelConnector> connectors = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
-    private AtomicInteger taskReconnectCount = new AtomicInteger(0);
+    private static final int DEFAULT_START_PARALLELISM = 4;
 
-    private ReconnectGuardianTask guardianTask;
+    private static final long DEFAULT_START_TIMEOUT_MILLIS = 10_000;
 
     /**
      * 重连保护进程的间隔，单位秒，默认60
@@ -65,102 +89,332 @@ public class WsManager {
     private int guardianTaskInterval = 60;
 
     /**
-     * 设置重连保护的间隔并启动保护任务
+     * 设置重连保护的间隔并启动保护任务，断开的WebSocket在间隔到期后重置重连次数并重新连接，
+     * 启动时未连接的WebSocket立即连接
      *
      * @param guardianTaskInterval 保护检测间隔，单位秒，要求大于0且大于【2* reconnectCount * reconnectInterval】
      */
-    public void startGuardianTaskInterval(int guardianTaskInterval) {
+    public synchronized void startGuardianTaskInterval(int guardianTaskInterval) {
+        if (guardianTaskInterval <= 0) {
+            throw new IllegalArgumentException("guardianTaskInterval must be greater than 0");
+        }
+        if (guardianTaskInterval < getMaxReconnectCount() * getMaxReconnectInterval() * 2) {
+            throw new IllegalArgumentException("guardianTaskInterval must be greater than maxReconnectCount * maxReconnectInterval * 2");
+        }
         this.guardianTaskInterval = guardianTaskInterval;
-        ThreadUtils.cancel(guardianTask);
-        guardianTask = new ReconnectGuardianTask();
-        guardianTask.execute();
+        registerNetworkChangedCallback();
+        stopGuardianTask();
+        ReconnectGuardianTask task = new ReconnectGuardianTask(TimeUnit.SECONDS.toMillis(guardianTaskInterval));
+        guardianTask = task;
+        task.start(clientMap.values());
+    }
+
+    /**
+     * 停止保护任务
+     */
+    public synchronized void stopGuardianTask() {
+        ReconnectGuardianTask task = guardianTask;
+        if (task != null) {
+            task.stop();
+            guardianTask = null;
+        }
+    }
 
+    /**
+     * @return 保护任务，未启动时为空
+     */
+    public ReconnectGuardianTask getGuardianTask() {
+        return guardianTask;
+    }
+
+    /**
+     * WebSocket连接成功，由{@link WsClient#onOpen}调用
+     */
+    void onClientOpen(WsClient ws) {
+        ReconnectGuardianTask task = guardianTask;
+        if (task != null) {
+            task.onUp(ws.getWsKey());
+        }
+        for (ParallelConnector connector : connectors) {
+            connector.onOpen(ws);
+        }
+    }
+
+    /**
+     * WebSocket断开或连接失败，由{@link WsClient#onClose}调用
+     */
+    void onClientClose(WsClient ws, DisConnectReason reason) {
+        ReconnectGuardianTask task = guardianTask;
+        if (task != null) {
+            task.onDown(ws.getWsKey());
+        }
+        for (ParallelConnector connector : connectors) {
+            connector.onClose(ws, reason);
+        }
     }
 
     public int getGuardianTaskInterval() {
         return guardianTaskInterval;
     }
 
+    /**
+     * @return 默认服务的WebSocketServer，未启动时为空
+     */
     public WebSocketServer getWebSocketServer() {
-        return webSocketServer;
+        WsServer server = serverMap.get(DEFAULT_SERVER);
+        return server == null ? null : server.getWebSocketServer();
     }
 
+    public ConcurrentHashMap<String, WsServer> getServerMap() {
+        return serverMap;
+    }
+
+    /**
+     * @return 指定的内置服务，未启动时为空
+     */
+    public WsServer getWsServer(String serverKey) {
+        return serverMap.get(serverKey);
+    }
+
+    /**
+     * 使用默认配置启动默认服务
+     */
     public synchronized void startWsServer(InetSocketAddress address, IWebSocketServerListener listener) {
-        attempt = 0;
-        webSocketServer = new WebSocketServer(address) {
-            @Override
-            public void onOpen(WebSocket conn, ClientHandshake handshake) {
-                listener.onWsOpen(conn, handshake);
-            }
+        startWsServer(address, listener, new WsServerConfig.Builder().build());
+    }
 
-            @Override
-            public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-                listener.onWsClose(conn, code, reason, remote);
-            }
+    /**
+     * @deprecated 请使用{@link #startWsServer(InetSocketAddress, IWebSocketServerListener, WsServerConfig)}
+     */
+    @Deprecated
+    public synchronized void startWsServer(InetSocketAddress address, IWebSocketServerListener listener
+            , CallbackExecutor callbackExecutor) {
+        startWsServer(address, listener, callbackExecutor, null);
+    }
 
-            @Override
-            public void onMessage(WebSocket conn, String message) {
-                listener.onWsMessage(conn, message);
-            }
+    /**
+     * @deprecated 请使用{@link #startWsServer(InetSocketAddress, IWebSocketServerListener, WsServerConfig)}
+     */
+    @Deprecated
+    public synchronized void startWsServer(InetSocketAddress address, IWebSocketServerListener listener
+            , CallbackExecutor callbackExecutor, DeflateConfig deflateConfig) {
+        startWsServer(address, listener, new WsServerConfig.Builder()
+                .setCallbackExecutor(callbackExecutor)
+                .setDeflateConfig(deflateConfig)
+                .build());
+    }
 
-            @Override
-            public void onError(WebSocket conn, Exception ex) {
-                if (ex instanceof BindException) {
-                    attempt++;
-                    WsLogUtil.e("端口被占用, 尝试端口：" + (address.getPort() + attempt));
-                }
-                listener.onWsError(conn, ex);
-            }
+    /**
+     * 启动默认服务
+     *
+     * @param config 服务端配置，可使用{@link WsServerConfig#lowLatency()}、{@link WsServerConfig#highFanIn()}预设
+     */
+    public synchronized void startWsServer(InetSocketAddress address, IWebSocketServerListener listener
+            , WsServerConfig config) {
+        startWsServer(DEFAULT_SERVER, address, listener, config);
+    }
 
-            @Override
-            public void onStart() {
-                listener.onWsStart(webSocketServer);
-            }
-        };
-        webSocketServer.setReuseAddr(true);
-        webSocketServer.start();
-        // 添加JVM关闭钩子，当应用退出时，关闭WebSocket服务
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> WsManager.getInstance().stopWsServer()));
+    /**
+     * 按serverKey启动内置服务，多个服务互相独立，同一serverKey已有服务时先停止旧的服务
+     *
+     * @param serverKey 服务的标识
+     * @param config    服务端配置，可使用{@link WsServerConfig#lowLatency()}、{@link WsServerConfig#highFanIn()}预设
+     */
+    public synchronized WsServer startWsServer(String serverKey, InetSocketAddress address
+            , IWebSocketServerListener listener, WsServerConfig config) {
+        if (serverKey == null) {
+            throw new IllegalArgumentException("serverKey must not be null");
+        }
+        WsServer oldServer = serverMap.remove(serverKey);
+        if (oldServer != null) {
+            WsLogUtil.e("服务已存在, 停止旧的服务, key = {}", serverKey);
+            oldServer.stop();
+        }
+        WsServer server = new WsServer(serverKey, address, listener
+                , config == null ? new WsServerConfig.Builder().build() : config);
+        serverMap.put(serverKey, server);
+        if (!serverShutdownHookAdded) {
+            serverShutdownHookAdded = true;
+            // 添加JVM关闭钩子，当应用退出时，关闭所有WebSocket服务
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> WsManager.getInstance().stopAllWsServers()));
+        }
+        server.start();
+        return server;
     }
 
-    public synchronized void stopWsServer() {
-        if (webSocketServer != null) {
-            try {
-                webSocketServer.stop();
-            } catch (InterruptedException e) {
-                WsLogUtil.e(e.getMessage());
-            }
-            webSocketServer = null;
+    /**
+     * 停止默认服务
+     */
+    public void stopWsServer() {
+        stopWsServer(DEFAULT_SERVER);
+    }
+
+    /**
+     * 停止指定的服务，关闭其所有连接
+     */
+    public synchronized void stopWsServer(String serverKey) {
+        WsServer server = serverMap.remove(serverKey);
+        if (server != null) {
+            server.stop();
         }
     }
 
     /**
-     * 设置重连次数
+     * 停止所有服务
      */
-    public void setTaskReconnectCount(int taskReconnectCount) {
-        this.taskReconnectCount = new AtomicInteger(taskReconnectCount);
+    public synchronized void stopAllWsServers() {
+        for (String serverKey : serverMap.keySet()) {
+            stopWsServer(serverKey);
+        }
+    }
+
+    /**
+     * 设置广播时单个连接允许积压的帧数，达到后该连接跳过本次广播，所有服务共用，默认256
+     */
+    public WsManager setBroadcastBacklogLimit(int broadcastBacklogLimit) {
+        if (broadcastBacklogLimit <= 0) {
+            throw new IllegalArgumentException("broadcastBacklogLimit must be greater than 0");
+        }
+        this.broadcastBacklogLimit = broadcastBacklogLimit;
+        return this;
+    }
+
+    public int getBroadcastBacklogLimit() {
+        return broadcastBacklogLimit;
+    }
+
+    /**
+     * 向默认服务的所有连接广播文本消息，消息只编码一次
+     */
+    public BroadcastResult broadcast(String message) {
+        return broadcast(message, null);
+    }
+
+    /**
+     * 向默认服务中满足过滤条件的连接广播文本消息
+     *
+     * @param filter 为空时发送给所有连接
+     */
+    public BroadcastResult broadcast(String message, ConnectionFilter filter) {
+        WsServer server = getDefaultServer();
+        return server == null ? BroadcastResult.EMPTY : server.broadcast(message, filter);
+    }
+
+    /**
+     * 向默认服务的所有连接广播二进制消息，不会修改bytes的position
+     */
+    public BroadcastResult broadcast(ByteBuffer bytes) {
+        return broadcast(bytes, null);
+    }
+
+    /**
+     * 向默认服务中满足过滤条件的连接广播二进制消息，不会修改bytes的position
+     *
+     * @param filter 为空时发送给所有连接
+     */
+    public BroadcastResult broadcast(ByteBuffer bytes, ConnectionFilter filter) {
+        WsServer server = getDefaultServer();
+        return server == null ? BroadcastResult.EMPTY : server.broadcast(bytes, filter);
+    }
+
+    /**
+     * @return 默认服务的主题订阅索引，未启动时为空
+     */
+    public TopicRouter getTopicRouter() {
+        WsServer server = getDefaultServer();
+        return server == null ? null : server.getTopicRouter();
+    }
+
+    /**
+     * 向默认服务中订阅了匹配主题的连接发送文本消息，消息只编码一次
+     *
+     * @param topic 发布的主题，不能包含通配符
+     */
+    public BroadcastResult publish(String topic, String message) {
+        WsServer server = getDefaultServer();
+        return server == null ? BroadcastResult.EMPTY : server.publish(topic, message);
     }
 
     /**
-     * 获取重连次数
+     * 向默认服务中订阅了匹配主题的连接发送二进制消息，不会修改bytes的position
+     *
+     * @param topic 发布的主题，不能包含通配符
      */
+    public BroadcastResult publish(String topic, ByteBuffer bytes) {
+        WsServer server = getDefaultServer();
+        return server == null ? BroadcastResult.EMPTY : server.publish(topic, bytes);
+    }
+
+    private WsServer getDefaultServer() {
+        WsServer server = serverMap.get(DEFAULT_SERVER);
+        if (server == null) {
+            WsLogUtil.e("WebSocketServer未启动");
+        }
+        return server;
+    }
+
+    /**
+     * 获取重连次数，多个WebSocket时返回其中最大的重连次数
+     *
+     * @deprecated 重连状态已按wsKey独立维护，请使用{@link WsClient#getReconnectAttempt()}
+     */
+    @Deprecated
     public int getTaskReconnectCount() {
-        return taskReconnectCount.get();
+        int tempCount = 0;
+        for (WsClient ws : clientMap.values()) {
+            tempCount = Math.max(tempCount, ws.getReconnectAttempt());
+        }
+        return tempCount;
     }
 
     /**
-     * 重置重连次数
+     * @deprecated 重连次数由每个WebSocket的重连状态机维护，调用不再生效，
+     * 请使用{@link #resetTaskReconnectCount(String)}重置
      */
-    public synchronized void resetTaskReconnectCount() {
-        taskReconnectCount = new AtomicInteger(0);
+    @Deprecated
+    public void setTaskReconnectCount(int taskReconnectCount) {
     }
 
-    public synchronized void setReconnectTaskRun(boolean reconnectTaskRun) {
-        isReconnectTaskRun = reconnectTaskRun;
+    /**
+     * 重置所有WebSocket的重连次数
+     */
+    public void resetTaskReconnectCount() {
+        for (WsClient ws : clientMap.values()) {
+            ws.resetReconnect();
+        }
     }
 
-    public synchronized boolean isReconnectTaskRun() {
-        return isReconnectTaskRun;
+    /**
+     * 重置指定WebSocket的重连次数
+     *
+     * @param wsKey wsKey
+     */
+    public void resetTaskReconnectCount(String wsKey) {
+        WsClient ws = getWsClient(wsKey);
+        if (ws != null) {
+            ws.resetReconnect();
+        }
+    }
+
+    /**
+     * @deprecated 重连任务的运行状态由每个WebSocket的重连状态机维护，调用不再生效
+     */
+    @Deprecated
+    public void setReconnectTaskRun(boolean reconnectTaskRun) {
+    }
+
+    /**
+     * @return 是否有WebSocket正在执行重连任务
+     * @deprecated 重连状态已按wsKey独立维护，请使用{@link WsClient#getReconnectState()}
+     */
+    @Deprecated
+    public boolean isReconnectTaskRun() {
+        for (WsClient ws : clientMap.values()) {
+            if (ws.getReconnectStateMachine().isRunning()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -206,6 +460,13 @@ public class WsManager {
         isNetworkAvailable = networkCapabilities != null && networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
     }
 
+    /**
+     * @return 网络回调已注册且没有可用的网络。未注册（例如没有网络状态权限）时无法判断，返回false
+     */
+    boolean isNetworkKnownUnavailable() {
+        return networkCallback != null && availableNetworks.isEmpty();
+    }
+
     /**
      * 注册网络变化监听广播，网络由不可用变为可用时会重新连接 WebSocket
      * 调用后会立即触发一次OnReceive
@@ -228,18 +489,27 @@ public class WsManager {
             @Override
             public void onAvailable(@NonNull Network network) {
                 updateNetworkAvailable(network);
+                if (isNetworkAvailable) {
+                    availableNetworks.add(network);
+                }
                 for (WsClient ws : WsManager.getInstance().getClientMap().values()) {
-                    if (ws.isReConnectWhenNetworkAvailable() && !ws.isOpen() && !WsManager.getInstance().isReconnectTaskRun()) {
+                    // 每个WebSocket的重连状态独立，重复调度由状态机拦截
+                    if (ws.isReConnectWhenNetworkAvailable() && !ws.isOpen()) {
                         ws.runReconnectTask();
                     }
                 }
-                WsLogUtil.e("网络状态：" + isNetworkAvailable);
+                ReconnectGuardianTask task = guardianTask;
+                if (task != null) {
+                    task.onNetworkAvailable();
+                }
+                WsLogUtil.e("网络状态：{}", isNetworkAvailable);
             }
 
             @Override
             public void onLost(@NonNull Network network) {
                 updateNetworkAvailable(network);
-                WsLogUtil.e("网络状态：" + isNetworkAvailable);
+                availableNetworks.remove(network);
+                WsLogUtil.e("网络状态：{}", isNetworkAvailable);
             }
         };
         connectivityManager.registerNetworkCallback(builder.build(), networkCallback);
@@ -257,6 +527,7 @@ public class WsManager {
         }
         connectivityManager.unregisterNetworkCallback(networkCallback);
         networkCallback = null;
+        availableNetworks.clear();
     }
 
     /**
@@ -294,6 +565,24 @@ public class WsManager {
         return this;
     }
 
+    /**
+     * 设置日志的最低输出级别，默认VERBOSE
+     */
+    public WsManager setLogLevel(WsLogUtil.Level level) {
+        WsLogUtil.setLevel(level);
+        return this;
+    }
+
+    /**
+     * 设置日志输出目标，默认输出到logcat
+     *
+     * @param sink 例如{@link com.eurigo.websocketlib.util.RingBufferLogSink}
+     */
+    public WsManager setLogSink(WsLogUtil.LogSink sink) {
+        WsLogUtil.setSink(sink);
+        return this;
+    }
+
     /**
      * 获取默认的WebSocket
      */
@@ -303,20 +592,19 @@ public class WsManager {
     }
 
     /**
-     * 开始执行连接，每个WebSocket都会创建对应的重连任务
+     * 开始执行连接，每个WebSocket都会创建对应的重连任务。
+     * 未连接过的WebSocket依次阻塞等待握手，请勿在主线程调用，多个WebSocket时可使用{@link #startAll(IStartListener)}
      */
     public void start() {
         registerNetworkChangedCallback();
         try {
             for (WsClient ws : clientMap.values()) {
                 if (ws.isOpen()) {
-                    WsLogUtil.e("请勿重复连接, key = " + ws.getWsKey());
+                    WsLogUtil.e("请勿重复连接, key = {}", ws.getWsKey());
                     continue;
                 }
                 if (ws.isClosed()) {
-                    ws = reCreateClient(ws);
-                    clientMap.put(ws.getWsKey(), ws);
-                    ws.connect();
+                    reconnect(ws);
                 } else {
                     ws.connectBlocking();
                 }
@@ -326,41 +614,133 @@ public class WsManager {
         }
     }
 
+    /**
+     * 使用默认并发数和截止时间异步连接所有WebSocket
+     *
+     * @see #startAll(int, long, IStartListener)
+     */
+    public void startAll(IStartListener listener) {
+        startAll(DEFAULT_START_PARALLELISM, DEFAULT_START_TIMEOUT_MILLIS, listener);
+    }
+
+    /**
+     * 异步连接所有未连接的WebSocket，不阻塞调用线程，同时最多parallelism个在握手，
+     * 每个WebSocket的结果通过{@link IStartListener#onResult(ConnectResult)}回调，全部得出结果后回调onComplete。
+     * 连接失败或超时后照常按各自的重连配置重连
+     *
+     * @param parallelism   同时握手的最大数量
+     * @param timeoutMillis 每个WebSocket从发起连接开始的截止时间，单位毫秒
+     */
+    public void startAll(int parallelism, long timeoutMillis, IStartListener listener) {
+        if (parallelism <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("parallelism and timeoutMillis must be greater than 0");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        registerNetworkChangedCallback();
+        ParallelConnector connector = new ParallelConnector(clientMap.values(), parallelism, timeoutMillis, listener);
+        connectors.add(connector);
+        connector.start();
+    }
+
+    /**
+     * 使用默认并发数和截止时间异步连接所有WebSocket
+     *
+     * @see #startAll(int, long)
+     */
+    @RequiresApi(Build.VERSION_CODES.N)
+    public CompletableFuture<Map<String, ConnectResult>> startAll() {
+        return startAll(DEFAULT_START_PARALLELISM, DEFAULT_START_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * 同{@link #startAll(int, long, IStartListener)}，返回的future在所有WebSocket得出结果后完成，
+     * 单个WebSocket失败不会使future失败，结果见{@link ConnectResult#getStatus()}
+     */
+    @RequiresApi(Build.VERSION_CODES.N)
+    public CompletableFuture<Map<String, ConnectResult>> startAll(int parallelism, long timeoutMillis) {
+        CompletableFuture<Map<String, ConnectResult>> future = new CompletableFuture<>();
+        startAll(parallelism, timeoutMillis, future::complete);
+        return future;
+    }
+
+    void removeConnector(ParallelConnector connector) {
+        connectors.remove(connector);
+    }
+
+    /**
+     * 发起连接，已关闭的WebSocket复用同一个WsClient重连，配置、回调、发送队列和缓冲区不会重新创建，
+     * 外部持有的WsClient引用始终有效
+     *
+     * @param ws WebSocket
+     */
     public void safeConnect(WsClient ws) {
+        tryConnect(ws);
+    }
+
+    /**
+     * 同{@link #safeConnect(WsClient)}
+     *
+     * @return 是否成功发起连接，连接结果通过onOpen或onClose回调
+     */
+    boolean tryConnect(WsClient ws) {
         if (ws.isOpen()) {
-            WsLogUtil.e("请勿重复连接, key = " + ws.getWsKey());
-            return;
-        }
-        if (ws.isClosed()) {
-            ws = reCreateClient(ws);
-            clientMap.put(ws.getWsKey(), ws);
+            WsLogUtil.e("请勿重复连接, key = {}", ws.getWsKey());
+            return false;
         }
         try {
-            ws.connect();
+            if (ws.isClosed() || ws.isClosing()) {
+                reconnect(ws);
+            } else {
+                ws.connect();
+            }
+            return true;
         } catch (IllegalStateException e) {
             if (e.getMessage() != null && e.getMessage().contains("WebSocketClient objects are not reuseable")) {
-                ws = reCreateClient(ws);
-                clientMap.put(ws.getWsKey(), ws);
-                ws.connect();
+                // 上一次连接仍在握手中，结果同样通过onOpen或onClose回调
+                WsLogUtil.e("正在连接, key = {}", ws.getWsKey());
+                return true;
             }
+            WsLogUtil.e(e.getMessage());
         } catch (Exception e) {
             WsLogUtil.e(e.getMessage());
         }
+        return false;
     }
 
-    private WsClient reCreateClient(WsClient oldWsClient) {
-        return new WsClient.Builder()
-                .setServerUrl(oldWsClient.getServerUrl())
-                .setWsKey(oldWsClient.getWsKey())
-                .setPingInterval(oldWsClient.getPingInterval())
-                .setDraft(oldWsClient.getDraft())
-                .setHttpHeaders(oldWsClient.getHttpHeaders())
-                .setConnectTimeout(oldWsClient.getConnectTimeout())
-                .setReconnectCount(oldWsClient.getReconnectCount())
-                .setReconnectInterval(oldWsClient.getReconnectInterval())
-                .setReConnectWhenNetworkAvailable(oldWsClient.isReConnectWhenNetworkAvailable())
-                .setListener(oldWsClient.getListener())
-                .build();
+    /**
+     * Java-WebSocket的reconnect只替换连接引擎和socket，等待旧的读写线程结束后再连接。
+     * 不能在该连接自身的读写线程中调用（例如直接执行的onDisconnect回调中），此时转到IO线程池执行
+     */
+    private void reconnect(WsClient ws) {
+        try {
+            ws.reconnect();
+        } catch (IllegalStateException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("out of the websocket thread")) {
+                throw e;
+            }
+            ThreadUtils.getIoPool().execute(ws::reconnect);
+        }
+    }
+
+    /**
+     * @return 指定WebSocket当前的连接指标，未初始化时为空
+     */
+    public WsMetrics.Snapshot getMetrics(String wsKey) {
+        WsClient ws = clientMap.get(wsKey);
+        return ws == null ? null : ws.getMetricsSnapshot();
+    }
+
+    /**
+     * @return 所有WebSocket当前的连接指标，key为wsKey
+     */
+    public Map<String, WsMetrics.Snapshot> getMetrics() {
+        Map<String, WsMetrics.Snapshot> snapshots = new HashMap<>();
+        for (WsClient ws : clientMap.values()) {
+            snapshots.put(ws.getWsKey(), ws.getMetricsSnapshot());
+        }
+        return snapshots;
     }
 
     public WsClient getDefault() {
@@ -369,7 +749,7 @@ public class WsManager {
 
     public WsClient getWsClient(String wsKey) {
         if (!clientMap.containsKey(wsKey)) {
-            WsLogUtil.e(NO_INIT + wsKey);
+            WsLogUtil.e(NO_INIT + "{}", wsKey);
             return null;
         }
         return clientMap.get(wsKey);
@@ -394,6 +774,16 @@ public class WsManager {
         getWsClient(wsKey).send(message);
     }
 
+    /**
+     * 使用指定的WebSocket发送二进制消息，缓冲区所有权约定见{@link WsClient#send(ByteBuffer)}
+     *
+     * @param wsKey webSocket Key
+     * @param bytes 消息
+     */
+    public void send(String wsKey, ByteBuffer bytes) {
+        getWsClient(wsKey).send(bytes);
+    }
+
     /**
      * 使用默认WebSocket发送ping
      */
@@ -453,9 +843,8 @@ public class WsManager {
     public void destroy() {
         // 解除广播
         unRegisterNetworkChangedCallback();
-        if (webSocketServer != null){
-            webSocketServer = null;
-        }
+        stopGuardianTask();
+        stopAllWsServers();
         // 关闭连接
         for (WsClient ws : clientMap.values()) {
             if (!ws.isFlushAndClose()) {
@@ -463,6 +852,6 @@ public class WsManager {
             }
         }
         clientMap.clear();
+        Outbox.closeAll();
     }
-
 }
@@ -0,0 +1,333 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 19:55
+ * desc   : 单个wsKey的连接指标，重连时复用同一个WsClient，计数不会因重连清零。
+ * 计数器和直方图都是无锁的，通过{@link WsManager#getMetrics(String)}或{@link WsClient#getMetricsSnapshot()}拉取快照，
+ * 耗时类指标的单位均为微秒
+ */
+public final class WsMetrics {
+
+    private final AtomicLong messagesSent = new AtomicLong();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private final AtomicLong messagesReceived = new AtomicLong();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private final AtomicLong messagesDropped = new AtomicLong();
+
+    private final AtomicLong connects = new AtomicLong();
+
+    private final AtomicLong disconnects = new AtomicLong();
+
+    private final AtomicLong reconnectAttempts = new AtomicLong();
+
+    private final AtomicLong reconnects = new AtomicLong();
+
+    /**
+     * 发起连接到onOpen的耗时，包括TCP连接和握手
+     */
+    private final LatencyHistogram handshakeLatency = new LatencyHistogram();
+
+    /**
+     * 已建立的连接断开到重连成功的耗时
+     */
+    private final LatencyHistogram reconnectDuration = new LatencyHistogram();
+
+    private final LatencyHistogram pingRtt = new LatencyHistogram();
+
+    private volatile long connectStartNanos;
+
+    private volatile long disconnectNanos;
+
+    private volatile boolean reconnecting;
+
+    private volatile long pingSentNanos;
+
+    void onMessageSent(long bytes) {
+        onMessagesSent(1, bytes);
+    }
+
+    void onMessagesSent(int messages, long bytes) {
+        messagesSent.addAndGet(messages);
+        bytesSent.addAndGet(bytes);
+    }
+
+    void onMessageReceived(long bytes) {
+        messagesReceived.incrementAndGet();
+        bytesReceived.addAndGet(bytes);
+    }
+
+    void onMessageDropped(int messages) {
+        messagesDropped.addAndGet(messages);
+    }
+
+    void onConnectStart() {
+        connectStartNanos = System.nanoTime();
+    }
+
+    void onOpen() {
+        long now = System.nanoTime();
+        connects.incrementAndGet();
+        long start = connectStartNanos;
+        if (start != 0) {
+            handshakeLatency.record(toMicros(now - start));
+            connectStartNanos = 0;
+        }
+        if (reconnecting) {
+            reconnecting = false;
+            reconnects.incrementAndGet();
+            reconnectDuration.record(toMicros(now - disconnectNanos));
+        }
+        disconnectNanos = 0;
+        pingSentNanos = 0;
+    }
+
+    /**
+     * @param wasOpen 断开的是否是已建立的连接，连接失败不计入
+     */
+    void onClose(boolean wasOpen) {
+        if (wasOpen) {
+            disconnects.incrementAndGet();
+            disconnectNanos = System.nanoTime();
+        }
+    }
+
+    void onReconnectAttempt() {
+        reconnectAttempts.incrementAndGet();
+        if (!reconnecting) {
+            // 没有断开过的连接（如首次连接失败），从第一次重连开始计时
+            if (disconnectNanos == 0) {
+                disconnectNanos = System.nanoTime();
+            }
+            reconnecting = true;
+        }
+    }
+
+    void onPingSent() {
+        pingSentNanos = System.nanoTime();
+    }
+
+    /**
+     * 只统计对应本端ping的pong，对端主动发送的pong忽略
+     */
+    void onPong() {
+        long sent = pingSentNanos;
+        if (sent != 0) {
+            pingSentNanos = 0;
+            pingRtt.record(toMicros(System.nanoTime() - sent));
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * 清零所有计数和直方图
+     */
+    public void reset() {
+        messagesSent.set(0);
+        bytesSent.set(0);
+        messagesReceived.set(0);
+        bytesReceived.set(0);
+        messagesDropped.set(0);
+        connects.set(0);
+        disconnects.set(0);
+        reconnectAttempts.set(0);
+        reconnects.set(0);
+        handshakeLatency.reset();
+        reconnectDuration.reset();
+        pingRtt.reset();
+    }
+
+    Snapshot snapshot(String wsKey, int queuedMessages, long queuedBytes, int engineQueuedFrames) {
+        return new Snapshot(this, wsKey, queuedMessages, queuedBytes, engineQueuedFrames);
+    }
+
+    /**
+     * 某一时刻的指标
+     */
+    public static final class Snapshot {
+
+        private final String wsKey;
+
+        private final long timestampMillis = System.currentTimeMillis();
+
+        private final long messagesSent;
+
+        private final long bytesSent;
+
+        private final long messagesReceived;
+
+        private final long bytesReceived;
+
+        private final long messagesDropped;
+
+        private final long connects;
+
+        private final long disconnects;
+
+        private final long reconnectAttempts;
+
+        private final long reconnects;
+
+        private final int queuedMessages;
+
+        private final long queuedBytes;
+
+        private final int engineQueuedFrames;
+
+        private final LatencyHistogram.Snapshot handshakeLatency;
+
+        private final LatencyHistogram.Snapshot reconnectDuration;
+
+        private final LatencyHistogram.Snapshot pingRtt;
+
+        private Snapshot(WsMetrics metrics, String wsKey, int queuedMessages, long queuedBytes
+                , int engineQueuedFrames) {
+            this.wsKey = wsKey;
+            this.messagesSent = metrics.messagesSent.get();
+            this.bytesSent = metrics.bytesSent.get();
+            this.messagesReceived = metrics.messagesReceived.get();
+            this.bytesReceived = metrics.bytesReceived.get();
+            this.messagesDropped = metrics.messagesDropped.get();
+            this.connects = metrics.connects.get();
+            this.disconnects = metrics.disconnects.get();
+            this.reconnectAttempts = metrics.reconnectAttempts.get();
+            this.reconnects = metrics.reconnects.get();
+            this.queuedMessages = queuedMessages;
+            this.queuedBytes = queuedBytes;
+            this.engineQueuedFrames = engineQueuedFrames;
+            this.handshakeLatency = metrics.handshakeLatency.snapshot();
+            this.reconnectDuration = metrics.reconnectDuration.snapshot();
+            this.pingRtt = metrics.pingRtt.snapshot();
+        }
+
+        public String getWsKey() {
+            return wsKey;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public long getMessagesSent() {
+            return messagesSent;
+        }
+
+        /**
+         * @return 发送的负载字节数，文本按UTF-8计算，不含帧头
+         */
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getMessagesReceived() {
+            return messagesReceived;
+        }
+
+        /**
+         * @return 收到的负载字节数，文本按UTF-8计算，不含帧头
+         */
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        /**
+         * @return 通过onSendDropped通知的未发送消息数
+         */
+        public long getMessagesDropped() {
+            return messagesDropped;
+        }
+
+        public long getConnects() {
+            return connects;
+        }
+
+        public long getDisconnects() {
+            return disconnects;
+        }
+
+        public long getReconnectAttempts() {
+            return reconnectAttempts;
+        }
+
+        /**
+         * @return 重连成功的次数
+         */
+        public long getReconnects() {
+            return reconnects;
+        }
+
+        /**
+         * @return 发送队列中未写出的消息数，未配置发送队列时为0
+         */
+        public int getQueuedMessages() {
+            return queuedMessages;
+        }
+
+        /**
+         * @return 发送队列中未写出的字节数，未配置发送队列时为0
+         */
+        public long getQueuedBytes() {
+            return queuedBytes;
+        }
+
+        /**
+         * @return Java-WebSocket中尚未写入socket的帧数
+         */
+        public int getEngineQueuedFrames() {
+            return engineQueuedFrames;
+        }
+
+        /**
+         * @return 发起连接到onOpen的耗时，单位微秒
+         */
+        public LatencyHistogram.Snapshot getHandshakeLatency() {
+            return handshakeLatency;
+        }
+
+        /**
+         * @return 断开到重连成功的耗时，单位微秒
+         */
+        public LatencyHistogram.Snapshot getReconnectDuration() {
+            return reconnectDuration;
+        }
+
+        /**
+         * @return ping到pong的往返时间，单位微秒
+         */
+        public LatencyHistogram.Snapshot getPingRtt() {
+            return pingRtt;
+        }
+
+        @Override
+        public String toString() {
+            return "WsMetrics{wsKey='" + wsKey + '\''
+                    + ", messagesSent=" + messagesSent
+                    + ", bytesSent=" + bytesSent
+                    + ", messagesReceived=" + messagesReceived
+                    + ", bytesReceived=" + bytesReceived
+                    + ", messagesDropped=" + messagesDropped
+                    + ", connects=" + connects
+                    + ", disconnects=" + disconnects
+                    + ", reconnectAttempts=" + reconnectAttempts
+                    + ", reconnects=" + reconnects
+                    + ", queuedMessages=" + queuedMessages
+                    + ", queuedBytes=" + queuedBytes
+                    + ", engineQueuedFrames=" + engineQueuedFrames
+                    + ", handshakeLatency=" + handshakeLatency
+                    + ", reconnectDuration=" + reconnectDuration
+                    + ", pingRtt=" + pingRtt + '}';
+        }
+    }
+}
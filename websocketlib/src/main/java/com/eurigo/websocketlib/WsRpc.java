@@ -0,0 +1,283 @@
+package com.eurigo.websocketlib;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.eurigo.websocketlib.util.HashedWheelTimer;
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 22:40
+ * desc   : 基于文本消息的请求/响应，通过{@link WsClient#getRpc()}获取，重连后继续使用。
+ * <p>
+ * 请求按{@link RpcCodec}写入调用id后发送，不等待上一个响应，多个调用可同时在连接上等待，
+ * 收到的文本消息先按调用id匹配，不是响应的消息照常回调onMessage。
+ * 每个调用的超时由共享的时间轮触发，连接断开时所有等待中的调用立即失败
+ * <p>
+ * 发送队列按DROP策略丢弃的请求不会单独通知，调用在超时后失败
+ */
+public final class WsRpc {
+
+    /**
+     * 调用未发出时{@link #call(String, RpcCallback)}的返回值
+     */
+    public static final long NO_CALL = 0;
+
+    private final RpcConfig config;
+
+    private final RpcCodec codec;
+
+    private final WsClient client;
+
+    private final AtomicLong nextCallId = new AtomicLong();
+
+    /**
+     * 等待响应的调用，key为调用id。完成、超时、取消和断开都通过remove竞争，只有移除成功的一方回调
+     */
+    private final ConcurrentHashMap<Long, PendingCall> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    WsRpc(WsClient client, RpcConfig config) {
+        this.client = client;
+        this.config = config;
+        this.codec = config.getCodec();
+    }
+
+    public RpcConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return 等待响应的调用数
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * 使用默认超时发送请求
+     *
+     * @see #call(String, long, RpcCallback)
+     */
+    public long call(String request, RpcCallback callback) {
+        return call(request, config.getTimeoutMillis(), callback);
+    }
+
+    /**
+     * 发送请求，不阻塞，结果通过callback回调一次。
+     * 未连接、并发调用过多或发送失败时，在当前线程回调onFailure
+     *
+     * @param timeoutMillis 等待响应的超时，单位毫秒
+     * @return 调用id，可用于{@link #cancel(long)}，调用未发出时为{@link #NO_CALL}
+     */
+    public long call(String request, long timeoutMillis, RpcCallback callback) {
+        if (request == null || callback == null) {
+            throw new IllegalArgumentException("request and callback must not be null");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be greater than 0");
+        }
+        if (!client.isOpen()) {
+            callback.onFailure(new WebsocketNotConnectedException());
+            return NO_CALL;
+        }
+        if (!acquire()) {
+            callback.onFailure(new RpcLimitExceededException("Too many in-flight calls, max = "
+                    + config.getMaxInFlight()));
+            return NO_CALL;
+        }
+        long callId = nextCallId.incrementAndGet();
+        PendingCall call = new PendingCall(callId, callback, client.getCallbacks());
+        pending.put(callId, call);
+        HashedWheelTimer.Timeout timeout = ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), call
+                , timeoutMillis, TimeUnit.MILLISECONDS);
+        call.timeout = timeout;
+        // 响应可能在设置超时之前到达
+        if (!pending.containsKey(callId)) {
+            timeout.cancel();
+        }
+        try {
+            client.send(codec.encodeRequest(callId, request));
+        } catch (RuntimeException e) {
+            if (remove(callId) != null) {
+                callback.onFailure(e);
+            }
+            return NO_CALL;
+        }
+        return callId;
+    }
+
+    /**
+     * 使用默认超时发送请求
+     *
+     * @see #call(String, long)
+     */
+    @RequiresApi(Build.VERSION_CODES.N)
+    public CompletableFuture<String> call(String request) {
+        return call(request, config.getTimeoutMillis());
+    }
+
+    /**
+     * 发送请求，返回的future在收到响应时完成，失败时的异常同{@link RpcCallback#onFailure(Exception)}。
+     * 取消future会同时取消调用，之后到达的响应被忽略
+     *
+     * @param timeoutMillis 等待响应的超时，单位毫秒
+     */
+    @RequiresApi(Build.VERSION_CODES.N)
+    public CompletableFuture<String> call(String request, long timeoutMillis) {
+        RpcFuture future = new RpcFuture(this);
+        long callId = call(request, timeoutMillis, future);
+        future.callId = callId;
+        // 发送期间future被取消时，cancel还读不到调用id，由这里移除调用
+        if (callId != NO_CALL && future.isCancelled()) {
+            cancel(callId);
+        }
+        return future;
+    }
+
+    /**
+     * 取消等待中的调用，不再回调
+     *
+     * @return 调用是否仍在等待
+     */
+    public boolean cancel(long callId) {
+        return remove(callId) != null;
+    }
+
+    /**
+     * 在读线程中调用
+     *
+     * @param callbacks 连接的回调执行器
+     * @return 是否是RPC响应，是时不再回调onMessage
+     */
+    boolean onMessage(String message, Executor callbacks) {
+        long callId = codec.decodeCallId(message);
+        if (callId == RpcCodec.NOT_A_RESPONSE) {
+            return false;
+        }
+        PendingCall call = remove(callId);
+        if (call == null) {
+            WsLogUtil.e("RPC调用已超时或取消, 忽略响应, id = {}", callId);
+            return true;
+        }
+        String response = codec.decodeResponse(message);
+        callbacks.execute(() -> call.callback.onResponse(response));
+        return true;
+    }
+
+    /**
+     * 连接断开时所有等待中的调用失败
+     */
+    void onClose(Executor callbacks) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        WebsocketNotConnectedException e = new WebsocketNotConnectedException();
+        for (Long callId : pending.keySet()) {
+            PendingCall call = remove(callId);
+            if (call != null) {
+                callbacks.execute(() -> call.callback.onFailure(e));
+            }
+        }
+    }
+
+    private boolean acquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= config.getMaxInFlight()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private PendingCall remove(long callId) {
+        PendingCall call = pending.remove(callId);
+        if (call != null) {
+            inFlight.decrementAndGet();
+            HashedWheelTimer.Timeout timeout = call.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+        return call;
+    }
+
+    private final class PendingCall implements Runnable {
+
+        private final long callId;
+
+        private final RpcCallback callback;
+
+        /**
+         * 连接的回调执行器，超时与响应、断开按同样的顺序回调
+         */
+        private final Executor callbacks;
+
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        PendingCall(long callId, RpcCallback callback, Executor callbacks) {
+            this.callId = callId;
+            this.callback = callback;
+            this.callbacks = callbacks;
+        }
+
+        /**
+         * 超时，在IO线程池中执行
+         */
+        @Override
+        public void run() {
+            if (pending.remove(callId, this)) {
+                inFlight.decrementAndGet();
+                TimeoutException e = new TimeoutException("RPC call " + callId + " timed out");
+                callbacks.execute(() -> callback.onFailure(e));
+            }
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N)
+    private static final class RpcFuture extends CompletableFuture<String> implements RpcCallback {
+
+        private final WsRpc rpc;
+
+        private volatile long callId = NO_CALL;
+
+        RpcFuture(WsRpc rpc) {
+            this.rpc = rpc;
+        }
+
+        @Override
+        public void onResponse(String response) {
+            complete(response);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            completeExceptionally(e);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && callId != NO_CALL) {
+                rpc.cancel(callId);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.HashedWheelTimer;
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.DefaultWebSocketServerFactory;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 21:45
+ * desc   : 内置的WebSocketServer，通过{@link WsManager#startWsServer(String, InetSocketAddress, IWebSocketServerListener, WsServerConfig)}
+ * 按serverKey启动，多个服务互相独立：各自的端口、线程、主题订阅和指标
+ * <p>
+ * WebSocketServer只能启动一次，端口被占用时按{@link WsServerConfig.Builder#setBindRetry(int, ReconnectPolicy)}
+ * 创建新的实例绑定下一个端口，绑定成功后通过onWsStart回调，{@link #getPort()}为实际绑定的端口
+ */
+public final class WsServer {
+
+    private final String serverKey;
+
+    private final InetSocketAddress address;
+
+    private final IWebSocketServerListener listener;
+
+    private final WsServerConfig config;
+
+    private final TopicRouter topicRouter = new TopicRouter();
+
+    private final WsServerMetrics metrics = new WsServerMetrics();
+
+    /**
+     * 每个连接的回调执行器，连接关闭后移除
+     */
+    private final ConcurrentHashMap<WebSocket, Executor> connExecutors = new ConcurrentHashMap<>();
+
+    private volatile WebSocketServer webSocketServer;
+
+    /**
+     * 当前的绑定序号，从1开始，只在启动和重试绑定时修改
+     */
+    private int bindAttempt;
+
+    private long bindDelayMillis;
+
+    private HashedWheelTimer.Timeout bindRetryTimeout;
+
+    private volatile boolean running;
+
+    WsServer(String serverKey, InetSocketAddress address, IWebSocketServerListener listener, WsServerConfig config) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        if (address.getPort() != 0 && address.getPort() + config.getPortRange() - 1 > 65535) {
+            throw new IllegalArgumentException("port range exceeds 65535: " + address.getPort()
+                    + " + " + config.getPortRange());
+        }
+        this.serverKey = serverKey;
+        this.address = address;
+        this.listener = listener;
+        this.config = config;
+    }
+
+    private WebSocketServer createServer(InetSocketAddress bindAddress) {
+        CallbackExecutor executor = config.getCallbackExecutor();
+        DeflateConfig deflateConfig = config.getDeflateConfig();
+        // 直接执行时不需要为连接保存执行器
+        boolean direct = executor.isDirect();
+        List<Draft> drafts = deflateConfig == null ? null : Collections.singletonList(deflateConfig.createDraft());
+        WebSocketServer server = new WebSocketServer(bindAddress, config.getDecoderCount(), drafts) {
+
+            private Executor callbacks(WebSocket conn) {
+                if (direct || conn == null) {
+                    return SerialExecutor.DIRECT;
+                }
+                Executor callbacks = connExecutors.get(conn);
+                if (callbacks == null) {
+                    callbacks = executor.forConnection();
+                    Executor old = connExecutors.putIfAbsent(conn, callbacks);
+                    if (old != null) {
+                        callbacks = old;
+                    }
+                }
+                return callbacks;
+            }
+
+            @Override
+            public void onOpen(WebSocket conn, ClientHandshake handshake) {
+                metrics.onOpen();
+                callbacks(conn).execute(() -> listener.onWsOpen(conn, handshake));
+            }
+
+            @Override
+            public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+                metrics.onClose();
+                topicRouter.unsubscribeAll(conn);
+                Executor callbacks = connExecutors.remove(conn);
+                (callbacks == null ? SerialExecutor.DIRECT : callbacks)
+                        .execute(() -> listener.onWsClose(conn, code, reason, remote));
+            }
+
+            @Override
+            public void onMessage(WebSocket conn, String message) {
+                metrics.onMessageReceived(OutboundQueue.utf8Length(message));
+                callbacks(conn).execute(() -> listener.onWsMessage(conn, message));
+            }
+
+            @Override
+            public void onMessage(WebSocket conn, ByteBuffer message) {
+                metrics.onMessageReceived(message.remaining());
+                callbacks(conn).execute(() -> listener.onWsMessage(conn, message));
+            }
+
+            @Override
+            public void onError(WebSocket conn, Exception ex) {
+                metrics.onError();
+                if (conn == null && ex instanceof BindException && onBindFailed(this, (BindException) ex)) {
+                    return;
+                }
+                // 连接关闭后仍可能回调onError，此时不再创建执行器
+                Executor callbacks = conn == null ? null : connExecutors.get(conn);
+                (callbacks == null ? SerialExecutor.DIRECT : callbacks).execute(() -> listener.onWsError(conn, ex));
+            }
+
+            @Override
+            public void onStart() {
+                if (bindAttempt > 1) {
+                    WsLogUtil.i("WebSocketServer已绑定端口：{}, key = {}, 尝试次数：{}", getPort(), serverKey, bindAttempt);
+                }
+                listener.onWsStart(this);
+            }
+        };
+        server.setReuseAddr(config.isReuseAddr());
+        server.setTcpNoDelay(config.isTcpNoDelay());
+        server.setReceiveBufferSize(config.getReceiveBufferSize());
+        server.setMaxPendingConnections(config.getMaxPendingConnections());
+        server.setConnectionLostTimeout(config.getConnectionLostTimeout());
+        if (config.getSendBufferSize() > 0) {
+            server.setWebSocketFactory(new SendBufferServerFactory(config.getSendBufferSize()));
+        }
+        return server;
+    }
+
+    synchronized void start() {
+        running = true;
+        bindAttempt = 1;
+        bindDelayMillis = 0;
+        bind();
+    }
+
+    /**
+     * 持有锁时调用
+     */
+    private void bind() {
+        int port = config.portForAttempt(address.getPort(), bindAttempt);
+        webSocketServer = createServer(port == address.getPort() ? address
+                : new InetSocketAddress(address.getAddress(), port));
+        webSocketServer.start();
+    }
+
+    /**
+     * 在绑定失败的selector线程中调用，之后该实例会自行停止
+     *
+     * @return 是否会重试，重试时不回调onWsError
+     */
+    private synchronized boolean onBindFailed(WebSocketServer failed, BindException ex) {
+        if (!running || failed != webSocketServer) {
+            return true;
+        }
+        int failedPort = failed.getAddress().getPort();
+        if (bindAttempt >= config.getMaxBindAttempts()) {
+            WsLogUtil.e("端口被占用, 绑定失败：{}, key = {}, 尝试次数：{}", failedPort, serverKey, bindAttempt);
+            running = false;
+            return false;
+        }
+        bindAttempt++;
+        bindDelayMillis = config.bindDelayMillis(bindAttempt, bindDelayMillis);
+        int nextPort = config.portForAttempt(address.getPort(), bindAttempt);
+        WsLogUtil.e("端口被占用：{}, {}毫秒后尝试端口：{}, key = {}", failedPort, bindDelayMillis, nextPort, serverKey);
+        // 不能在失败实例的selector线程中启动新实例，该线程随后还要关闭自身
+        bindRetryTimeout = ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), this::retryBind
+                , bindDelayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private synchronized void retryBind() {
+        bindRetryTimeout = null;
+        if (running) {
+            bind();
+        }
+    }
+
+    /**
+     * 关闭所有连接并停止服务，清空主题订阅
+     */
+    void stop() {
+        WebSocketServer server;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            if (bindRetryTimeout != null) {
+                bindRetryTimeout.cancel();
+                bindRetryTimeout = null;
+            }
+            server = webSocketServer;
+        }
+        try {
+            server.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            WsLogUtil.e("停止WebSocketServer被中断, key = {}", serverKey);
+        }
+        topicRouter.clear();
+        connExecutors.clear();
+    }
+
+    public String getServerKey() {
+        return serverKey;
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * @return 实际监听的端口，启动前为配置的端口，重试绑定时为正在尝试的端口
+     */
+    public int getPort() {
+        return webSocketServer.getPort();
+    }
+
+    public WsServerConfig getConfig() {
+        return config;
+    }
+
+    public IWebSocketServerListener getListener() {
+        return listener;
+    }
+
+    public WebSocketServer getWebSocketServer() {
+        return webSocketServer;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Collection<WebSocket> getConnections() {
+        return webSocketServer.getConnections();
+    }
+
+    /**
+     * @return 主题订阅索引，连接关闭时自动取消其订阅
+     */
+    public TopicRouter getTopicRouter() {
+        return topicRouter;
+    }
+
+    public WsServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public WsServerMetrics.Snapshot getMetricsSnapshot() {
+        return metrics.snapshot(serverKey, getPort(), webSocketServer.getConnections().size());
+    }
+
+    /**
+     * 向所有连接广播文本消息，消息只编码一次
+     */
+    public BroadcastResult broadcast(String message) {
+        return broadcast(message, null);
+    }
+
+    /**
+     * 向满足过滤条件的连接广播文本消息
+     *
+     * @param filter 为空时发送给所有连接
+     */
+    public BroadcastResult broadcast(String message, ConnectionFilter filter) {
+        return send(null, message, filter);
+    }
+
+    /**
+     * 向所有连接广播二进制消息，不会修改bytes的position
+     */
+    public BroadcastResult broadcast(ByteBuffer bytes) {
+        return broadcast(bytes, null);
+    }
+
+    /**
+     * 向满足过滤条件的连接广播二进制消息，不会修改bytes的position
+     *
+     * @param filter 为空时发送给所有连接
+     */
+    public BroadcastResult broadcast(ByteBuffer bytes, ConnectionFilter filter) {
+        return send(null, bytes, filter);
+    }
+
+    /**
+     * 向订阅了匹配主题的连接发送文本消息，消息只编码一次
+     *
+     * @param topic 发布的主题，不能包含通配符
+     */
+    public BroadcastResult publish(String topic, String message) {
+        return send(topic, message, null);
+    }
+
+    /**
+     * 向订阅了匹配主题的连接发送二进制消息，不会修改bytes的position
+     *
+     * @param topic 发布的主题，不能包含通配符
+     */
+    public BroadcastResult publish(String topic, ByteBuffer bytes) {
+        return send(topic, bytes, null);
+    }
+
+    /**
+     * @param topic 为空时广播给所有连接
+     */
+    private BroadcastResult send(String topic, Object payload, ConnectionFilter filter) {
+        if (payload == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        if (!running) {
+            WsLogUtil.e("WebSocketServer未启动, 无法发送, key = {}", serverKey);
+            return BroadcastResult.EMPTY;
+        }
+        int backlogLimit = WsManager.getInstance().getBroadcastBacklogLimit();
+        BroadcastResult result = topic == null
+                ? Broadcaster.broadcast(webSocketServer, payload, filter, backlogLimit)
+                : Broadcaster.broadcast(webSocketServer, topicRouter.match(topic), payload, filter, backlogLimit);
+        metrics.onBroadcast(result);
+        return result;
+    }
+
+    /**
+     * 为accept的连接设置socket发送缓冲区，WebSocketServer本身只支持设置接收缓冲区
+     */
+    private static final class SendBufferServerFactory extends DefaultWebSocketServerFactory {
+
+        private final int sendBufferSize;
+
+        SendBufferServerFactory(int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+        }
+
+        @Override
+        public SocketChannel wrapChannel(SocketChannel channel, SelectionKey key) {
+            try {
+                channel.socket().setSendBufferSize(sendBufferSize);
+            } catch (SocketException e) {
+                WsLogUtil.e("设置发送缓冲区失败, {}", e.getMessage());
+            }
+            return channel;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.eurigo.websocketlib;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 21:10
+ * desc   : 内置WebSocketServer的配置，通过{@link WsManager#startWsServer(java.net.InetSocketAddress, IWebSocketServerListener, WsServerConfig)}使用
+ * <p>
+ * Java-WebSocket的服务端只有一个selector线程负责accept和socket读写，
+ * 帧的解码和回调在decoder线程中执行，每个连接固定分配给其中一个decoder，
+ * 连接数较多时增加decoderCount可以让解码分散到多个核心
+ */
+public final class WsServerConfig {
+
+    private final int decoderCount;
+
+    private final boolean tcpNoDelay;
+
+    private final int receiveBufferSize;
+
+    private final int sendBufferSize;
+
+    private final int maxPendingConnections;
+
+    private final int connectionLostTimeout;
+
+    private final boolean reuseAddr;
+
+    private final CallbackExecutor callbackExecutor;
+
+    private final DeflateConfig deflateConfig;
+
+    private final int portRange;
+
+    private final int maxBindAttempts;
+
+    private final ReconnectPolicy bindRetryPolicy;
+
+    private WsServerConfig(Builder builder) {
+        if (builder.decoderCount <= 0) {
+            throw new IllegalArgumentException("decoderCount must be greater than 0");
+        }
+        if (builder.receiveBufferSize < 0 || builder.sendBufferSize < 0) {
+            throw new IllegalArgumentException("buffer size must not be negative");
+        }
+        if (builder.portRange <= 0 || builder.maxBindAttempts <= 0) {
+            throw new IllegalArgumentException("portRange and maxBindAttempts must be greater than 0");
+        }
+        this.decoderCount = builder.decoderCount;
+        this.tcpNoDelay = builder.tcpNoDelay;
+        this.receiveBufferSize = builder.receiveBufferSize;
+        this.sendBufferSize = builder.sendBufferSize;
+        this.maxPendingConnections = builder.maxPendingConnections;
+        this.connectionLostTimeout = builder.connectionLostTimeout;
+        this.reuseAddr = builder.reuseAddr;
+        this.callbackExecutor = builder.callbackExecutor == null ? CallbackExecutor.direct() : builder.callbackExecutor;
+        this.deflateConfig = builder.deflateConfig;
+        this.portRange = builder.portRange;
+        this.maxBindAttempts = builder.maxBindAttempts;
+        this.bindRetryPolicy = builder.bindRetryPolicy == null
+                ? Builder.DEFAULT_BIND_RETRY_POLICY : builder.bindRetryPolicy;
+    }
+
+    /**
+     * 低延迟预设：关闭Nagle算法，decoder数量等于CPU核心数，10秒未收到pong即断开，
+     * 适合少量连接、频繁收发小消息的场景
+     */
+    public static Builder lowLatency() {
+        return new Builder()
+                .setTcpNoDelay(true)
+                .setDecoderCount(Runtime.getRuntime().availableProcessors())
+                .setConnectionLostTimeout(10);
+    }
+
+    /**
+     * 大量连接预设：decoder数量等于CPU核心数，增大accept队列和socket缓冲区，
+     * 回调在共享线程池中执行，避免慢回调阻塞同一decoder上的其他连接
+     */
+    public static Builder highFanIn() {
+        return new Builder()
+                .setTcpNoDelay(true)
+                .setDecoderCount(Runtime.getRuntime().availableProcessors())
+                .setMaxPendingConnections(1024)
+                .setReceiveBufferSize(64 * 1024)
+                .setSendBufferSize(256 * 1024)
+                .setCallbackExecutor(CallbackExecutor.shared());
+    }
+
+    public int getDecoderCount() {
+        return decoderCount;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public int getMaxPendingConnections() {
+        return maxPendingConnections;
+    }
+
+    public int getConnectionLostTimeout() {
+        return connectionLostTimeout;
+    }
+
+    public boolean isReuseAddr() {
+        return reuseAddr;
+    }
+
+    public CallbackExecutor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    public DeflateConfig getDeflateConfig() {
+        return deflateConfig;
+    }
+
+    public int getPortRange() {
+        return portRange;
+    }
+
+    public int getMaxBindAttempts() {
+        return maxBindAttempts;
+    }
+
+    public ReconnectPolicy getBindRetryPolicy() {
+        return bindRetryPolicy;
+    }
+
+    /**
+     * @param attempt 绑定序号，从1开始
+     * @return 该次绑定使用的端口，端口范围内依次尝试，全部失败后从起始端口重新开始
+     */
+    int portForAttempt(int basePort, int attempt) {
+        if (basePort == 0) {
+            return 0;
+        }
+        return basePort + (attempt - 1) % portRange;
+    }
+
+    /**
+     * 同一轮内依次尝试端口不等待，每轮结束后按bindRetryPolicy退避
+     *
+     * @param attempt             即将执行的绑定序号，从2开始
+     * @param previousDelayMillis 上一次退避的延迟
+     * @return 延迟，单位毫秒
+     */
+    long bindDelayMillis(int attempt, long previousDelayMillis) {
+        if ((attempt - 1) % portRange != 0) {
+            return 0;
+        }
+        return bindRetryPolicy.nextDelayMillis((attempt - 1) / portRange, previousDelayMillis);
+    }
+
+    public static final class Builder {
+
+        private static final ReconnectPolicy DEFAULT_BIND_RETRY_POLICY = ReconnectPolicy.exponential(500, 8000);
+
+        private int decoderCount = Runtime.getRuntime().availableProcessors();
+
+        private boolean tcpNoDelay;
+
+        private int receiveBufferSize;
+
+        private int sendBufferSize;
+
+        private int maxPendingConnections = -1;
+
+        private int connectionLostTimeout = 60;
+
+        private boolean reuseAddr = true;
+
+        private CallbackExecutor callbackExecutor = CallbackExecutor.direct();
+
+        private DeflateConfig deflateConfig;
+
+        private int portRange = 1;
+
+        private int maxBindAttempts = 1;
+
+        private ReconnectPolicy bindRetryPolicy = DEFAULT_BIND_RETRY_POLICY;
+
+        /**
+         * decoder线程数，默认CPU核心数
+         */
+        public Builder setDecoderCount(int decoderCount) {
+            this.decoderCount = decoderCount;
+            return this;
+        }
+
+        /**
+         * 是否关闭Nagle算法，默认false
+         */
+        public Builder setTcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * socket接收缓冲区大小，单位字节，默认0即使用系统默认值。
+         * 同时决定每次读取的缓冲区大小
+         */
+        public Builder setReceiveBufferSize(int receiveBufferSize) {
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
+        /**
+         * 每个连接的socket发送缓冲区大小，单位字节，默认0即使用系统默认值
+         */
+        public Builder setSendBufferSize(int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            return this;
+        }
+
+        /**
+         * 等待accept的最大连接数，默认-1即使用系统默认值
+         */
+        public Builder setMaxPendingConnections(int maxPendingConnections) {
+            this.maxPendingConnections = maxPendingConnections;
+            return this;
+        }
+
+        /**
+         * 连接丢失检测间隔，单位秒，默认60，小于等于0时关闭检测
+         */
+        public Builder setConnectionLostTimeout(int connectionLostTimeout) {
+            this.connectionLostTimeout = connectionLostTimeout;
+            return this;
+        }
+
+        /**
+         * 是否允许端口复用，默认true
+         */
+        public Builder setReuseAddr(boolean reuseAddr) {
+            this.reuseAddr = reuseAddr;
+            return this;
+        }
+
+        /**
+         * 回调的执行方式，同一连接的回调按顺序执行，服务端自身的事件仍在原线程中回调，默认direct
+         */
+        public Builder setCallbackExecutor(CallbackExecutor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * permessage-deflate压缩配置，默认不压缩，客户端未请求压缩时自动回退
+         */
+        public Builder setDeflateConfig(DeflateConfig deflateConfig) {
+            this.deflateConfig = deflateConfig;
+            return this;
+        }
+
+        /**
+         * 端口被占用时可回退的端口数，从配置的端口开始依次尝试 port ~ port + portRange - 1，
+         * 默认1即只使用配置的端口，端口为0（系统分配）时忽略
+         */
+        public Builder setPortRange(int portRange) {
+            this.portRange = portRange;
+            return this;
+        }
+
+        /**
+         * 绑定失败时的重试，默认只绑定1次。
+         * 端口范围内的端口依次尝试，一轮都被占用时按policy退避后再从起始端口开始，
+         * 适合上次进程的socket尚未释放的场景
+         *
+         * @param maxBindAttempts 最多绑定次数，包括首次
+         * @param policy          每轮之间的退避策略，为空时使用指数退避，500毫秒起，最多8秒
+         */
+        public Builder setBindRetry(int maxBindAttempts, ReconnectPolicy policy) {
+            this.maxBindAttempts = maxBindAttempts;
+            this.bindRetryPolicy = policy;
+            return this;
+        }
+
+        public WsServerConfig build() {
+            return new WsServerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.eurigo.websocketlib;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 21:40
+ * desc   : 单个内置WebSocketServer的指标，通过{@link WsServer#getMetricsSnapshot()}拉取快照，
+ * 服务停止后重新启动同一serverKey时重新计数
+ */
+public final class WsServerMetrics {
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    private final AtomicLong connectionsClosed = new AtomicLong();
+
+    private final AtomicLong messagesReceived = new AtomicLong();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong broadcasts = new AtomicLong();
+
+    private final AtomicLong broadcastDeliveries = new AtomicLong();
+
+    private final AtomicLong broadcastSkipped = new AtomicLong();
+
+    void onOpen() {
+        connectionsOpened.incrementAndGet();
+    }
+
+    void onClose() {
+        connectionsClosed.incrementAndGet();
+    }
+
+    void onMessageReceived(long bytes) {
+        messagesReceived.incrementAndGet();
+        bytesReceived.addAndGet(bytes);
+    }
+
+    void onError() {
+        errors.incrementAndGet();
+    }
+
+    void onBroadcast(BroadcastResult result) {
+        broadcasts.incrementAndGet();
+        broadcastDeliveries.addAndGet(result.getSent());
+        broadcastSkipped.addAndGet(result.getSkipped());
+    }
+
+    /**
+     * 清零所有计数
+     */
+    public void reset() {
+        connectionsOpened.set(0);
+        connectionsClosed.set(0);
+        messagesReceived.set(0);
+        bytesReceived.set(0);
+        errors.set(0);
+        broadcasts.set(0);
+        broadcastDeliveries.set(0);
+        broadcastSkipped.set(0);
+    }
+
+    Snapshot snapshot(String serverKey, int port, int activeConnections) {
+        return new Snapshot(this, serverKey, port, activeConnections);
+    }
+
+    /**
+     * 某一时刻的指标
+     */
+    public static final class Snapshot {
+
+        private final String serverKey;
+
+        private final int port;
+
+        private final long timestampMillis = System.currentTimeMillis();
+
+        private final int activeConnections;
+
+        private final long connectionsOpened;
+
+        private final long connectionsClosed;
+
+        private final long messagesReceived;
+
+        private final long bytesReceived;
+
+        private final long errors;
+
+        private final long broadcasts;
+
+        private final long broadcastDeliveries;
+
+        private final long broadcastSkipped;
+
+        private Snapshot(WsServerMetrics metrics, String serverKey, int port, int activeConnections) {
+            this.serverKey = serverKey;
+            this.port = port;
+            this.activeConnections = activeConnections;
+            this.connectionsOpened = metrics.connectionsOpened.get();
+            this.connectionsClosed = metrics.connectionsClosed.get();
+            this.messagesReceived = metrics.messagesReceived.get();
+            this.bytesReceived = metrics.bytesReceived.get();
+            this.errors = metrics.errors.get();
+            this.broadcasts = metrics.broadcasts.get();
+            this.broadcastDeliveries = metrics.broadcastDeliveries.get();
+            this.broadcastSkipped = metrics.broadcastSkipped.get();
+        }
+
+        public String getServerKey() {
+            return serverKey;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public long getConnectionsOpened() {
+            return connectionsOpened;
+        }
+
+        public long getConnectionsClosed() {
+            return connectionsClosed;
+        }
+
+        public long getMessagesReceived() {
+            return messagesReceived;
+        }
+
+        /**
+         * @return 收到的负载字节数，文本按UTF-8计算，不含帧头
+         */
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return broadcast和publish的调用次数
+         */
+        public long getBroadcasts() {
+            return broadcasts;
+        }
+
+        /**
+         * @return 广播放入发送队列的连接次数
+         */
+        public long getBroadcastDeliveries() {
+            return broadcastDeliveries;
+        }
+
+        /**
+         * @return 广播因积压跳过的连接次数
+         */
+        public long getBroadcastSkipped() {
+            return broadcastSkipped;
+        }
+
+        @Override
+        public String toString() {
+            return "WsServerMetrics{serverKey='" + serverKey + '\''
+                    + ", port=" + port
+                    + ", activeConnections=" + activeConnections
+                    + ", connectionsOpened=" + connectionsOpened
+                    + ", connectionsClosed=" + connectionsClosed
+                    + ", messagesReceived=" + messagesReceived
+                    + ", bytesReceived=" + bytesReceived
+                    + ", errors=" + errors
+                    + ", broadcasts=" + broadcasts
+                    + ", broadcastDeliveries=" + broadcastDeliveries
+                    + ", broadcastSkipped=" + broadcastSkipped + '}';
+        }
+    }
+}
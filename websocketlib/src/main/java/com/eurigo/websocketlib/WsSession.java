@@ -0,0 +1,378 @@
+package com.eurigo.websocketlib;
+
+import com.eurigo.websocketlib.util.ThreadUtils;
+import com.eurigo.websocketlib.util.WsLogUtil;
+
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/18 00:20
+ * desc   : 可恢复会话，通过{@link WsClient#getSession()}获取，重连后继续使用。
+ * <p>
+ * 发送的文本消息按{@link SessionCodec}写入递增的序号，并保留在有界的重传缓冲区中，直到对方确认；
+ * 收到带序号的消息时去掉重复的消息，并延迟合并地回复确认。
+ * 握手时在请求头{@link #HEADER_SESSION_ID}和{@link #HEADER_ACK}中带上会话id和已收到的最大序号，
+ * 服务端据此只补发缺少的消息，并在响应头{@link #HEADER_ACK}中返回已收到的最大序号，客户端只补发之后的消息。
+ * 响应头中没有{@link #HEADER_ACK}时视为服务端未恢复会话，双方序号从1重新开始，
+ * 已发出但未确认的消息通过onSendDropped通知，并回调{@link IWebSocketListener#onSessionReset(WsClient)}
+ * <p>
+ * 只对文本消息编号，二进制消息和流式发送不经过会话
+ */
+public final class WsSession {
+
+    /**
+     * 请求头：会话id，同一个WsSession的所有连接相同
+     */
+    public static final String HEADER_SESSION_ID = "X-Ws-Session-Id";
+
+    /**
+     * 请求头：客户端已收到的最大序号；响应头：服务端已收到的最大序号
+     */
+    public static final String HEADER_ACK = "X-Ws-Session-Ack";
+
+    private final SessionConfig config;
+
+    private final SessionCodec codec;
+
+    private final String sessionId = UUID.randomUUID().toString();
+
+    private final WsClient client;
+
+    /**
+     * 已发送或等待补发的消息，按序号排列，以下字段都在锁内访问
+     */
+    private final ArrayDeque<Entry> retransmit = new ArrayDeque<>();
+
+    private long retransmitBytes;
+
+    private long nextSeq = 1;
+
+    /**
+     * 已写入连接的最大序号
+     */
+    private long sentSeq;
+
+    /**
+     * 对方已确认的最大序号
+     */
+    private long peerAckedSeq;
+
+    /**
+     * 握手完成且补发结束前为false，期间发送的消息只进入重传缓冲区，补发时按顺序写出
+     */
+    private boolean ready;
+
+    /**
+     * 只在读线程中修改
+     */
+    private volatile long receivedSeq;
+
+    private volatile long ackedReceivedSeq;
+
+    private final AtomicBoolean ackScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean ackDue = new AtomicBoolean();
+
+    /**
+     * 延迟确认和立即确认可能同时执行，保证确认的序号递增
+     */
+    private final Object ackLock = new Object();
+
+    private final AtomicLong replayedMessages = new AtomicLong();
+
+    private final AtomicLong lostMessages = new AtomicLong();
+
+    private final Runnable ackTask = () -> {
+        ackScheduled.set(false);
+        sendAck();
+    };
+
+    private final Runnable dueAckTask = () -> {
+        ackDue.set(false);
+        sendAck();
+    };
+
+    WsSession(WsClient client, SessionConfig config) {
+        this.client = client;
+        this.config = config;
+        this.codec = config.getCodec();
+    }
+
+    public SessionConfig getConfig() {
+        return config;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return 已收到的最大序号
+     */
+    public long getReceivedSeq() {
+        return receivedSeq;
+    }
+
+    /**
+     * @return 已分配的最大序号
+     */
+    public synchronized long getSentSeq() {
+        return nextSeq - 1;
+    }
+
+    /**
+     * @return 重传缓冲区中对方未确认的消息数
+     */
+    public synchronized int getUnackedMessages() {
+        return retransmit.size();
+    }
+
+    /**
+     * @return 恢复会话时补发的消息总数
+     */
+    public long getReplayedMessages() {
+        return replayedMessages.get();
+    }
+
+    /**
+     * @return 超过重传缓冲区上限而在确认前丢弃的消息总数，断开后这些消息无法恢复
+     */
+    public long getLostMessages() {
+        return lostMessages.get();
+    }
+
+    /**
+     * 每次发起连接前调用，设置握手请求头
+     */
+    void prepareHandshake(WsClient client) {
+        synchronized (this) {
+            ready = false;
+        }
+        client.addHeader(HEADER_SESSION_ID, sessionId);
+        client.addHeader(HEADER_ACK, String.valueOf(receivedSeq));
+    }
+
+    /**
+     * 持有发送锁时调用，分配序号并放入重传缓冲区
+     *
+     * @param open 连接是否已打开
+     * @return 写入连接的文本，握手完成但尚未补发时为空，消息在补发时写出
+     */
+    synchronized String onWrite(String message, boolean open) {
+        long seq = nextSeq++;
+        Entry entry = new Entry(seq, message);
+        retransmit.addLast(entry);
+        retransmitBytes += entry.length;
+        if (open && !ready) {
+            trimToLimit();
+            return null;
+        }
+        sentSeq = seq;
+        trimToLimit();
+        return codec.encode(seq, message);
+    }
+
+    /**
+     * 持有发送锁时调用，撤销写入失败的最后一条消息
+     */
+    synchronized void rollback() {
+        Entry last = retransmit.peekLast();
+        if (last != null && last.seq == nextSeq - 1) {
+            retransmit.pollLast();
+            retransmitBytes -= last.length;
+            nextSeq--;
+            sentSeq = Math.min(sentSeq, nextSeq - 1);
+        }
+    }
+
+    /**
+     * 握手完成后在读线程中调用，调用方持有发送锁，补发结束前其他发送等待
+     *
+     * @param callbacks 连接的回调执行器
+     */
+    void onOpen(ServerHandshake handshake, Executor callbacks) {
+        long peerAck = parseAck(handshake.getFieldValue(HEADER_ACK));
+        List<Entry> replay;
+        List<String> dropped = null;
+        boolean reset = false;
+        synchronized (this) {
+            if (peerAck == SessionCodec.NOT_SEQUENCED) {
+                // 服务端未恢复会话，未确认的消息无法判断是否已处理，握手期间的消息重新编号
+                reset = sentSeq > 0 || receivedSeq > 0;
+                dropped = new ArrayList<>();
+                List<Entry> unsent = new ArrayList<>();
+                for (Entry entry : retransmit) {
+                    if (entry.seq <= sentSeq) {
+                        dropped.add(entry.message);
+                    } else {
+                        unsent.add(new Entry(unsent.size() + 1, entry.message));
+                    }
+                }
+                retransmit.clear();
+                retransmit.addAll(unsent);
+                retransmitBytes = 0;
+                for (Entry entry : unsent) {
+                    retransmitBytes += entry.length;
+                }
+                nextSeq = unsent.size() + 1;
+                sentSeq = 0;
+                peerAckedSeq = 0;
+                receivedSeq = 0;
+                ackedReceivedSeq = 0;
+            } else {
+                acknowledge(peerAck);
+                Entry first = retransmit.peekFirst();
+                long expected = first == null ? nextSeq : first.seq;
+                if (expected > peerAck + 1) {
+                    WsLogUtil.e("重传缓冲区已丢弃{}条未确认的消息, 无法完整恢复, key = {}"
+                            , expected - peerAck - 1, client.getWsKey());
+                }
+            }
+            replay = new ArrayList<>(retransmit);
+            for (Entry entry : replay) {
+                client.writeSessionFrame(codec.encode(entry.seq, entry.message));
+                sentSeq = entry.seq;
+            }
+            ready = true;
+        }
+        if (!replay.isEmpty()) {
+            replayedMessages.addAndGet(replay.size());
+            WsLogUtil.i("恢复会话, 补发{}条消息, key = {}", replay.size(), client.getWsKey());
+        }
+        if (dropped != null) {
+            for (String message : dropped) {
+                client.notifySendDropped(message);
+            }
+        }
+        if (reset) {
+            WsLogUtil.e("服务端未恢复会话, 序号重置, key = {}", client.getWsKey());
+            IWebSocketListener listener = client.getListener();
+            callbacks.execute(() -> listener.onSessionReset(client));
+        }
+    }
+
+    void onClose() {
+        synchronized (this) {
+            ready = false;
+        }
+    }
+
+    /**
+     * 在读线程中对每条文本消息调用
+     *
+     * @return 去掉序号后的消息，确认消息和重复的消息返回空
+     */
+    String onMessage(String message) {
+        long ack = codec.decodeAck(message);
+        if (ack != SessionCodec.NOT_SEQUENCED) {
+            synchronized (this) {
+                acknowledge(ack);
+            }
+            return null;
+        }
+        long seq = codec.decodeSeq(message);
+        if (seq == SessionCodec.NOT_SEQUENCED) {
+            return message;
+        }
+        long last = receivedSeq;
+        if (seq <= last) {
+            return null;
+        }
+        if (seq > last + 1) {
+            WsLogUtil.e("会话消息不连续, 期望 = {}, 收到 = {}", last + 1, seq);
+        }
+        receivedSeq = seq;
+        // 确认需要发送锁，流式发送可能长时间持有，不在读线程中发送
+        if (seq - ackedReceivedSeq >= config.getAckEvery()) {
+            if (ackDue.compareAndSet(false, true)) {
+                ThreadUtils.getIoPool().execute(dueAckTask);
+            }
+        } else if (ackScheduled.compareAndSet(false, true)) {
+            ThreadUtils.getTimer().newTimeout(ThreadUtils.getIoPool(), ackTask
+                    , config.getAckDelayMillis(), TimeUnit.MILLISECONDS);
+        }
+        return codec.decodePayload(message);
+    }
+
+    /**
+     * 在IO线程池中执行
+     */
+    private void sendAck() {
+        synchronized (ackLock) {
+            long seq = receivedSeq;
+            if (seq <= ackedReceivedSeq || !client.isOpen()) {
+                return;
+            }
+            ackedReceivedSeq = seq;
+            try {
+                client.writeSessionFrame(codec.encodeAck(seq));
+            } catch (RuntimeException e) {
+                // 重连时通过请求头确认
+                WsLogUtil.e("发送会话确认失败, key = {}, {}", client.getWsKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 持有锁时调用，移除已确认的消息
+     */
+    private void acknowledge(long ack) {
+        if (ack <= peerAckedSeq) {
+            return;
+        }
+        peerAckedSeq = ack;
+        while (!retransmit.isEmpty() && retransmit.peekFirst().seq <= ack) {
+            retransmitBytes -= retransmit.pollFirst().length;
+        }
+    }
+
+    /**
+     * 持有锁时调用，超过上限时丢弃最早的已发送消息，至少保留最新的一条，尚未写出、等待补发的消息不丢弃
+     */
+    private void trimToLimit() {
+        while (retransmit.size() > 1 && retransmit.peekFirst().seq <= sentSeq
+                && (retransmit.size() > config.getRetransmitCapacity()
+                || retransmitBytes > config.getRetransmitMaxBytes())) {
+            retransmitBytes -= retransmit.pollFirst().length;
+            lostMessages.incrementAndGet();
+        }
+    }
+
+    private static long parseAck(String value) {
+        if (value == null || value.isEmpty()) {
+            return SessionCodec.NOT_SEQUENCED;
+        }
+        try {
+            long ack = Long.parseLong(value.trim());
+            return ack < 0 ? SessionCodec.NOT_SEQUENCED : ack;
+        } catch (NumberFormatException e) {
+            WsLogUtil.e("会话确认响应头无效：{}", value);
+            return SessionCodec.NOT_SEQUENCED;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long seq;
+
+        private final String message;
+
+        private final long length;
+
+        Entry(long seq, String message) {
+            this.seq = seq;
+            this.message = message;
+            this.length = OutboundQueue.utf8Length(message);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.eurigo.websocketlib.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 23:00
+ * desc   : 直接读取ByteBuffer的输入流，不拷贝数据，也不修改原缓冲区的position，
+ * 可通过{@link #reset(ByteBuffer)}复用，用于把帧数据交给protobuf、CBOR等基于流的解析器。非线程安全
+ */
+public final class ByteBufferInputStream extends InputStream {
+
+    private ByteBuffer buffer;
+
+    public ByteBufferInputStream() {
+        this(null);
+    }
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * 改为读取另一个缓冲区的position到limit
+     *
+     * @return this
+     */
+    public ByteBufferInputStream reset(ByteBuffer buffer) {
+        this.buffer = buffer == null ? null : buffer.duplicate();
+        return this;
+    }
+
+    @Override
+    public int read() {
+        if (buffer == null || !buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (buffer == null || !buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (buffer == null || n <= 0) {
+            return 0;
+        }
+        int skipped = (int) Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer == null ? 0 : buffer.remaining();
+    }
+}
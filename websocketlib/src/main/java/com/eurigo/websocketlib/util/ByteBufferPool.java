@@ -0,0 +1,85 @@
+package com.eurigo.websocketlib.util;
+
+import com.eurigo.websocketlib.BufferRecycler;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 15:34
+ * desc   : 固定容量的ByteBuffer池，可直接作为{@link BufferRecycler}设置给WsClient
+ */
+public class ByteBufferPool implements BufferRecycler {
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int bufferCapacity;
+
+    private final int maxPoolSize;
+
+    private final boolean direct;
+
+    /**
+     * @param bufferCapacity 每个缓冲区的容量，单位字节
+     * @param maxPoolSize    池中最多保留的缓冲区数量
+     * @param direct         是否使用直接内存
+     */
+    public ByteBufferPool(int bufferCapacity, int maxPoolSize, boolean direct) {
+        if (bufferCapacity <= 0 || maxPoolSize < 0) {
+            throw new IllegalArgumentException("bufferCapacity must be greater than 0 and maxPoolSize must not be negative");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.maxPoolSize = maxPoolSize;
+        this.direct = direct;
+    }
+
+    /**
+     * 获取一个已清空的缓冲区，池为空时新建
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return direct ? ByteBuffer.allocateDirect(bufferCapacity) : ByteBuffer.allocate(bufferCapacity);
+        }
+        size.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，容量不匹配或池已满时丢弃
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferCapacity || buffer.isDirect() != direct
+                || buffer.isReadOnly()) {
+            return;
+        }
+        if (size.incrementAndGet() > maxPoolSize) {
+            size.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    @Override
+    public void recycle(ByteBuffer buffer) {
+        release(buffer);
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    /**
+     * @return 池中空闲的缓冲区数量
+     */
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,355 @@
+package com.eurigo.websocketlib.util;
+
+import android.util.Log;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 14:10
+ * desc   : Hashed timing wheel backed by a single-thread {@link ScheduledThreadPoolExecutor}.
+ * <p>
+ * Scheduling and cancelling are O(1): new timeouts are pushed to a lock-free queue and
+ * moved into their bucket by the tick thread, cancelled ones are unlinked from their bucket
+ * on the next tick. The tick thread never runs user work, expired timeouts are handed off
+ * to the executor they were scheduled with, so a slow task can't delay other timeouts.
+ * <p>
+ * The wheel doesn't tick at a fixed rate: after each tick it sleeps until the next
+ * non-empty bucket and stops completely when no timeout is pending.
+ */
+public final class HashedWheelTimer {
+
+    private static final String TAG = "HashedWheelTimer";
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final long startNanos = System.nanoTime();
+
+    private final Queue<HashedTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<HashedTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor ticker;
+    private final Runnable tickRunnable = this::tick;
+
+    /**
+     * Accessed by the tick thread only.
+     */
+    private long lastTick = -1;
+    private ScheduledFuture<?> wakeup;
+
+    /**
+     * Time of the next planned tick, {@link Long#MAX_VALUE} when the wheel is idle.
+     */
+    private volatile long nextWakeNanos = Long.MAX_VALUE;
+
+    /**
+     * @param name          The name of the tick thread.
+     * @param tickDuration  The duration between ticks, i.e. the precision of the timer.
+     * @param unit          The time unit of the tickDuration parameter.
+     * @param ticksPerWheel The number of buckets, rounded up to a power of two.
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 20)) {
+            throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^20]");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        tickNanos = unit.toNanos(tickDuration);
+        mask = size - 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        ticker = new ScheduledThreadPoolExecutor(1
+                , new ThreadUtils.UtilsThreadFactory(name + "-timer", Thread.NORM_PRIORITY, true));
+        ticker.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedule a one-shot timeout.
+     *
+     * @param executor The executor which runs the task when the timeout expires.
+     * @param task     The task to run.
+     * @param delay    The time from now to delay execution.
+     * @param unit     The time unit of the delay parameter.
+     * @return the handle to cancel the timeout
+     */
+    public Timeout newTimeout(Executor executor, Runnable task, long delay, TimeUnit unit) {
+        return newTimeout(executor, task, delay, 0, unit);
+    }
+
+    /**
+     * Schedule a timeout, which is re-armed at fixed rate when period is greater than 0.
+     *
+     * @param executor The executor which runs the task when the timeout expires.
+     * @param task     The task to run.
+     * @param delay    The time from now to delay first execution.
+     * @param period   The period between successive executions, 0 for one-shot.
+     * @param unit     The time unit of the delay and period parameters.
+     * @return the handle to cancel the timeout
+     */
+    public Timeout newTimeout(Executor executor, Runnable task, long delay, long period, TimeUnit unit) {
+        if (executor == null || task == null) {
+            throw new NullPointerException("executor and task must not be null");
+        }
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay));
+        HashedTimeout timeout = new HashedTimeout(executor, task, deadline
+                , period > 0 ? Math.max(tickNanos, unit.toNanos(period)) : 0);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        if (deadline < nextWakeNanos) {
+            wakeUp();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts which are neither expired nor cancelled
+     */
+    public int pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    private void wakeUp() {
+        try {
+            ticker.execute(tickRunnable);
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "The timer has been shut down.");
+        }
+    }
+
+    private long tickOf(long nanos) {
+        return (nanos - startNanos) / tickNanos;
+    }
+
+    private void tick() {
+        if (wakeup != null) {
+            wakeup.cancel(false);
+            wakeup = null;
+        }
+        long currentTick = tickOf(System.nanoTime());
+        removeCancelled();
+        transferPending();
+        if (currentTick > lastTick) {
+            // After a long sleep every bucket is visited at most once
+            long from = Math.max(lastTick + 1, currentTick - mask);
+            for (long t = from; t <= currentTick; t++) {
+                wheel[(int) (t & mask)].expire(currentTick);
+            }
+            lastTick = currentTick;
+        }
+        scheduleNextTick(currentTick);
+    }
+
+    private void removeCancelled() {
+        HashedTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending() {
+        HashedTimeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state.get() == HashedTimeout.ST_CANCELLED) {
+                continue;
+            }
+            // Buckets up to lastTick have been visited, so the earliest tick is lastTick + 1
+            long deadlineTick = Math.max(tickOf(timeout.deadline + tickNanos - 1), lastTick + 1);
+            timeout.deadlineTick = deadlineTick;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void scheduleNextTick(long currentTick) {
+        long nextTick = Long.MAX_VALUE;
+        for (int i = 1; i <= wheel.length; i++) {
+            if (wheel[(int) ((currentTick + i) & mask)].head != null) {
+                nextTick = currentTick + i;
+                break;
+            }
+        }
+        nextWakeNanos = nextTick == Long.MAX_VALUE ? Long.MAX_VALUE : startNanos + nextTick * tickNanos;
+        // Re-check after publishing nextWakeNanos, a concurrent newTimeout() either sees
+        // the new value and wakes us up or its timeout is visible here
+        if (!pendingTimeouts.isEmpty()) {
+            nextWakeNanos = System.nanoTime();
+            wakeUp();
+            return;
+        }
+        if (nextTick != Long.MAX_VALUE) {
+            long delay = Math.max(0, nextWakeNanos - System.nanoTime());
+            try {
+                wakeup = ticker.schedule(tickRunnable, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "The timer has been shut down.");
+            }
+        }
+    }
+
+    /**
+     * The handle of a scheduled timeout.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancel the timeout, the task won't be run if it hasn't been handed off yet.
+         *
+         * @return {@code true}: cancelled by this call<br>{@code false}: already expired or cancelled
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    private final class HashedTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private final Executor executor;
+        private final Runnable task;
+        private final long period;
+        private long deadline;
+
+        /**
+         * Accessed by the tick thread only.
+         */
+        private long deadlineTick;
+        private Bucket bucket;
+        private HashedTimeout prev;
+        private HashedTimeout next;
+
+        HashedTimeout(Executor executor, Runnable task, long deadline, long period) {
+            this.executor = executor;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        /**
+         * Called by the tick thread when the deadline is reached.
+         */
+        void expire() {
+            if (period > 0) {
+                if (state.get() != ST_INIT) {
+                    return;
+                }
+                handOff();
+                // Fixed rate, the next deadline doesn't drift with the tick precision
+                deadline += period;
+                pendingTimeouts.add(this);
+                return;
+            }
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            handOff();
+        }
+
+        private void handOff() {
+            try {
+                executor.execute(task);
+            } catch (Throwable t) {
+                Log.e(TAG, "An exception was thrown while handing off the timeout.", t);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, accessed by the tick thread only.
+     */
+    private static final class Bucket {
+
+        private HashedTimeout head;
+        private HashedTimeout tail;
+
+        void add(HashedTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long currentTick) {
+            HashedTimeout timeout = head;
+            while (timeout != null) {
+                HashedTimeout next = timeout.next;
+                if (timeout.state.get() == HashedTimeout.ST_CANCELLED) {
+                    remove(timeout);
+                } else if (timeout.deadlineTick <= currentTick) {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(HashedTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            HashedTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.eurigo.websocketlib.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Eurigo
+ * Created on 2026/10/17 18:10
+ * desc   : 保存最近N条日志的内存输出目标，满后覆盖最早的日志，可在出错时一次导出
+ */
+public final class RingBufferLogSink implements WsLogUtil.LogSink {
+
+    private final String[] entries;
+
+    private long written;
+
+    /**
+     * @param capacity 最多保存的日志条数
+     */
+    public RingBufferLogSink(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        entries = new String[capacity];
+    }
+
+    @Override
+    public void log(WsLogUtil.Level level, String tag, String msg, Throwable tr) {
+        String entry = System.currentTimeMillis() + " " + level.name().charAt(0) + "/" + tag + ": " + msg
+                + (tr == null ? "" : " " + tr);
+        synchronized (entries) {
+            entries[(int) (written % entries.length)] = entry;
+            written++;
+        }
+    }
+
+    /**
+     * @return 按时间顺序排列的日志
+     */
+    public List<String> snapshot() {
+        synchronized (entries) {
+            int size = (int) Math.min(written, entries.length);
+            List<String> list = new ArrayList<>(size);
+            for (long i = written - size; i < written; i++) {
+                list.add(entries[(int) (i % entries.length)]);
+            }
+            return list;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            written = 0;
+            Arrays.fill(entries, null);
+        }
+    }
+}
@@ -11,8 +11,6 @@ import androidx.annotation.NonNull;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -43,7 +41,7 @@ public final class ThreadUtils {
     private static final Map<Task, ExecutorService> TASK_POOL_MAP = new ConcurrentHashMap<>();
 
     private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
-    private static final Timer TIMER = new Timer();
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer("ThreadUtils", 10, TimeUnit.MILLISECONDS, 512);
 
     private static final byte TYPE_SINGLE = -1;
     private static final byte TYPE_CACHED = -2;
@@ -910,6 +908,15 @@ public final class ThreadUtils {
         }
     }
 
+    /**
+     * Return the shared timer, which is used for all delayed and periodic tasks.
+     *
+     * @return the shared timer
+     */
+    public static HashedWheelTimer getTimer() {
+        return TIMER;
+    }
+
     /**
      * Set the deliver.
      *
@@ -951,23 +958,11 @@ public final class ThreadUtils {
             if (delay == 0) {
                 pool.execute(task);
             } else {
-                TimerTask timerTask = new TimerTask() {
-                    @Override
-                    public void run() {
-                        pool.execute(task);
-                    }
-                };
-                TIMER.schedule(timerTask, unit.toMillis(delay));
+                task.setScheduledTimeout(TIMER.newTimeout(pool, task, delay, unit));
             }
         } else {
             task.setSchedule(true);
-            TimerTask timerTask = new TimerTask() {
-                @Override
-                public void run() {
-                    pool.execute(task);
-                }
-            };
-            TIMER.scheduleAtFixedRate(timerTask, unit.toMillis(delay), unit.toMillis(period));
+            task.setScheduledTimeout(TIMER.newTimeout(pool, task, delay, period, unit));
         }
     }
 
@@ -1182,7 +1177,8 @@ public final class ThreadUtils {
         private volatile boolean isSchedule;
         private volatile Thread runner;
 
-        private Timer mTimer;
+        private volatile HashedWheelTimer.Timeout mScheduledTimeout;
+        private HashedWheelTimer.Timeout mTimeout;
         private long mTimeoutMillis;
         private OnTimeoutListener mTimeoutListener;
 
@@ -1218,17 +1214,17 @@ public final class ThreadUtils {
                 }
                 runner = Thread.currentThread();
                 if (mTimeoutListener != null) {
-                    mTimer = new Timer();
-                    mTimer.schedule(new TimerTask() {
+                    mTimeout = TIMER.newTimeout(getPoolByTypeAndPriority(TYPE_CACHED), new Runnable() {
                         @Override
                         public void run() {
-                            if (!isDone() && mTimeoutListener != null) {
+                            OnTimeoutListener listener = mTimeoutListener;
+                            if (!isDone() && listener != null) {
                                 timeout();
-                                mTimeoutListener.onTimeout();
+                                listener.onTimeout();
                                 onDone();
                             }
                         }
-                    }, mTimeoutMillis);
+                    }, mTimeoutMillis, TimeUnit.MILLISECONDS);
                 }
             }
             try {
@@ -1282,6 +1278,7 @@ public final class ThreadUtils {
                 }
                 state.set(CANCELLED);
             }
+            cancelScheduledTimeout();
             if (mayInterruptIfRunning) {
                 if (runner != null) {
                     runner.interrupt();
@@ -1336,6 +1333,21 @@ public final class ThreadUtils {
             this.isSchedule = isSchedule;
         }
 
+        private void setScheduledTimeout(HashedWheelTimer.Timeout timeout) {
+            mScheduledTimeout = timeout;
+            // Cancelled before the timeout was set
+            if (isCanceled()) {
+                cancelScheduledTimeout();
+            }
+        }
+
+        private void cancelScheduledTimeout() {
+            HashedWheelTimer.Timeout timeout = mScheduledTimeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
         private Executor getDeliver() {
             if (deliver == null) {
                 return getGlobalDeliver();
@@ -1346,9 +1358,10 @@ public final class ThreadUtils {
         @CallSuper
         protected void onDone() {
             TASK_POOL_MAP.remove(this);
-            if (mTimer != null) {
-                mTimer.cancel();
-                mTimer = null;
+            cancelScheduledTimeout();
+            if (mTimeout != null) {
+                mTimeout.cancel();
+                mTimeout = null;
                 mTimeoutListener = null;
             }
         }
@@ -5,36 +5,297 @@ import android.util.Log;
 /**
  * @author Eurigo
  * Created on 2022/3/29 16:11
- * desc   :
+ * Update on 2026/10/17
+ * desc   : 日志工具，先按级别过滤再格式化
+ * <p>
+ * 模板使用"{}"作为占位符，例如 {@code WsLogUtil.e("执行第{}次重连, key = {}", attempt, wsKey)}，
+ * 日志关闭时不拼接字符串；基本类型参数会自动装箱，热点路径上可先判断{@link #isLoggable(Level)}，
+ * 或使用{@link LogSupplier}延迟构造消息
  */
 public class WsLogUtil {
 
     private static final String TAG = "WsLogUtil";
 
-    private static boolean isClose = true;
+    /**
+     * 日志级别，数值与{@link Log}一致
+     */
+    public enum Level {
+
+        VERBOSE(Log.VERBOSE),
+
+        DEBUG(Log.DEBUG),
+
+        INFO(Log.INFO),
+
+        WARN(Log.WARN),
+
+        ERROR(Log.ERROR),
+
+        /**
+         * 不输出任何日志
+         */
+        NONE(Integer.MAX_VALUE);
+
+        final int priority;
+
+        Level(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * 延迟构造日志消息，只在日志会输出时调用
+     */
+    public interface LogSupplier {
+
+        String get();
+    }
+
+    /**
+     * 日志输出目标
+     */
+    public interface LogSink {
+
+        /**
+         * @param level 日志级别，不会是{@link Level#NONE}
+         * @param tag   标签
+         * @param msg   格式化后的消息
+         * @param tr    异常，可为空
+         */
+        void log(Level level, String tag, String msg, Throwable tr);
+    }
+
+    /**
+     * 默认输出到logcat
+     */
+    public static final LogSink LOGCAT = (level, tag, msg, tr) -> {
+        switch (level) {
+            case VERBOSE:
+                Log.v(tag, msg, tr);
+                break;
+            case DEBUG:
+                Log.d(tag, msg, tr);
+                break;
+            case INFO:
+                Log.i(tag, msg, tr);
+                break;
+            case WARN:
+                Log.w(tag, msg, tr);
+                break;
+            default:
+                Log.e(tag, msg, tr);
+                break;
+        }
+    };
+
+    private static volatile boolean isClose = true;
+
+    private static volatile Level level = Level.VERBOSE;
+
+    /**
+     * 低于该优先级的日志直接丢弃，由isClose和level计算，热点路径只读这一个字段
+     */
+    private static volatile int threshold = Level.NONE.priority;
+
+    private static volatile LogSink sink = LOGCAT;
 
     public static void closeLog(boolean print) {
         isClose = print;
+        updateThreshold();
+    }
+
+    /**
+     * 设置最低输出级别，默认VERBOSE，{@link #closeLog(boolean)}关闭时不输出任何日志
+     */
+    public static void setLevel(Level level) {
+        WsLogUtil.level = level == null ? Level.NONE : level;
+        updateThreshold();
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 设置日志输出目标，默认{@link #LOGCAT}，例如{@link RingBufferLogSink}
+     */
+    public static void setSink(LogSink sink) {
+        WsLogUtil.sink = sink == null ? LOGCAT : sink;
+    }
+
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    private static void updateThreshold() {
+        threshold = isClose ? Level.NONE.priority : level.priority;
+    }
+
+    public static boolean isLoggable(Level level) {
+        return level.priority >= threshold;
     }
 
     public static void d(String msg) {
-        if (isClose) {
-            return;
+        log(Level.DEBUG, msg, null);
+    }
+
+    public static void d(String template, Object arg) {
+        if (isLoggable(Level.DEBUG)) {
+            write(Level.DEBUG, format(template, arg), null);
         }
-        Log.d(TAG, "d: " + msg);
     }
 
-    public static void e(String msg) {
-        if (isClose) {
-            return;
+    public static void d(String template, Object arg1, Object arg2) {
+        if (isLoggable(Level.DEBUG)) {
+            write(Level.DEBUG, format(template, arg1, arg2), null);
+        }
+    }
+
+    public static void d(String template, Object... args) {
+        if (isLoggable(Level.DEBUG)) {
+            write(Level.DEBUG, format(template, args), null);
+        }
+    }
+
+    public static void d(LogSupplier supplier) {
+        if (isLoggable(Level.DEBUG)) {
+            write(Level.DEBUG, supplier.get(), null);
+        }
+    }
+
+    public static void i(String msg) {
+        log(Level.INFO, msg, null);
+    }
+
+    public static void i(String template, Object arg) {
+        if (isLoggable(Level.INFO)) {
+            write(Level.INFO, format(template, arg), null);
+        }
+    }
+
+    public static void i(String template, Object arg1, Object arg2) {
+        if (isLoggable(Level.INFO)) {
+            write(Level.INFO, format(template, arg1, arg2), null);
+        }
+    }
+
+    public static void i(String template, Object... args) {
+        if (isLoggable(Level.INFO)) {
+            write(Level.INFO, format(template, args), null);
+        }
+    }
+
+    public static void i(LogSupplier supplier) {
+        if (isLoggable(Level.INFO)) {
+            write(Level.INFO, supplier.get(), null);
         }
-        Log.e(TAG, "e: " + msg);
     }
 
     public static void w(String msg) {
-        if (isClose) {
-            return;
+        log(Level.WARN, msg, null);
+    }
+
+    public static void w(String template, Object arg) {
+        if (isLoggable(Level.WARN)) {
+            write(Level.WARN, format(template, arg), null);
+        }
+    }
+
+    public static void w(String template, Object arg1, Object arg2) {
+        if (isLoggable(Level.WARN)) {
+            write(Level.WARN, format(template, arg1, arg2), null);
+        }
+    }
+
+    public static void w(String template, Object... args) {
+        if (isLoggable(Level.WARN)) {
+            write(Level.WARN, format(template, args), null);
+        }
+    }
+
+    public static void w(LogSupplier supplier) {
+        if (isLoggable(Level.WARN)) {
+            write(Level.WARN, supplier.get(), null);
+        }
+    }
+
+    public static void e(String msg) {
+        log(Level.ERROR, msg, null);
+    }
+
+    public static void e(String msg, Throwable tr) {
+        log(Level.ERROR, msg, tr);
+    }
+
+    public static void e(String template, Object arg) {
+        if (isLoggable(Level.ERROR)) {
+            write(Level.ERROR, format(template, arg), null);
+        }
+    }
+
+    public static void e(String template, Object arg1, Object arg2) {
+        if (isLoggable(Level.ERROR)) {
+            write(Level.ERROR, format(template, arg1, arg2), null);
+        }
+    }
+
+    public static void e(String template, Object... args) {
+        if (isLoggable(Level.ERROR)) {
+            write(Level.ERROR, format(template, args), null);
+        }
+    }
+
+    public static void e(LogSupplier supplier) {
+        if (isLoggable(Level.ERROR)) {
+            write(Level.ERROR, supplier.get(), null);
+        }
+    }
+
+    private static void log(Level level, String msg, Throwable tr) {
+        if (isLoggable(level)) {
+            write(level, msg, tr);
+        }
+    }
+
+    private static void write(Level level, String msg, Throwable tr) {
+        try {
+            sink.log(level, TAG, msg, tr);
+        } catch (RuntimeException e) {
+            // 日志不能影响调用方
+            Log.e(TAG, "LogSink threw an exception", e);
+        }
+    }
+
+    static String format(String template, Object arg) {
+        int index = template.indexOf("{}");
+        if (index < 0) {
+            return template;
+        }
+        return new StringBuilder(template.length() + 16)
+                .append(template, 0, index)
+                .append(arg)
+                .append(template, index + 2, template.length())
+                .toString();
+    }
+
+    static String format(String template, Object arg1, Object arg2) {
+        return format(template, new Object[]{arg1, arg2});
+    }
+
+    static String format(String template, Object... args) {
+        if (args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder builder = new StringBuilder(template.length() + 16 * args.length);
+        int start = 0;
+        for (Object arg : args) {
+            int index = template.indexOf("{}", start);
+            if (index < 0) {
+                break;
+            }
+            builder.append(template, start, index).append(arg);
+            start = index + 2;
         }
-        Log.w(TAG, "w: " + msg);
+        return builder.append(template, start, template.length()).toString();
     }
 }